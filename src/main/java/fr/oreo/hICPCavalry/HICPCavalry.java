@@ -1,34 +1,103 @@
 package fr.oreo.hICPCavalry;
 
+import fr.oreo.hICPCavalry.api.CavalryApi;
+import fr.oreo.hICPCavalry.command.MountsCommand;
+import fr.oreo.hICPCavalry.command.StableCommand;
 import fr.oreo.hICPCavalry.config.CavalryConfig;
+import fr.oreo.hICPCavalry.config.WorldProfiles;
+import fr.oreo.hICPCavalry.journal.CavalryJournal;
 import fr.oreo.hICPCavalry.listener.MountListener;
+import fr.oreo.hICPCavalry.listener.MountedCombatListener;
 import fr.oreo.hICPCavalry.listener.SpawnListener;
 import fr.oreo.hICPCavalry.listener.VehicleMoveListener;
+import fr.oreo.hICPCavalry.perf.AllocationMonitor;
+import fr.oreo.hICPCavalry.registry.MountRegistry;
+import fr.oreo.hICPCavalry.service.HorseNormalizationQueue;
+import fr.oreo.hICPCavalry.service.IdleMountManager;
 import fr.oreo.hICPCavalry.service.LeashSinkingService;
+import fr.oreo.hICPCavalry.service.MountKinematics;
 import fr.oreo.hICPCavalry.service.MountStatService;
+import fr.oreo.hICPCavalry.stable.StableService;
+import fr.oreo.hICPCavalry.stable.StableStore;
 import org.bukkit.Bukkit;
+import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
 
 public final class HICPCavalry extends JavaPlugin {
 
     private CavalryConfig cfg;
+    private CavalryJournal journal;
+    private MountRegistry registry;
+    private AllocationMonitor allocations;
     private MountStatService statService;
     private LeashSinkingService leashSinkingService;
+    private HorseNormalizationQueue normalizationQueue;
+    private IdleMountManager idleMounts;
+    private StableStore stableStore;
+    private VehicleMoveListener moveListener;
+    private StableService stableService;
 
     @Override
     public void onEnable() {
         saveDefaultConfig();
         this.cfg = new CavalryConfig(getConfig());
-        this.statService = new MountStatService(this, cfg);
-        leashSinkingService = new LeashSinkingService(this, cfg);
+        for (String warning : cfg.warnings) {
+            getLogger().warning(warning);
+        }
+
+        WorldProfiles profiles = new WorldProfiles(this, cfg);
+        profiles.start();
+        getServer().getPluginManager().registerEvents(profiles, this);
+
+        this.allocations = new AllocationMonitor(this, cfg);
+        allocations.start();
+
+        this.journal = new CavalryJournal(this, cfg);
+        journal.start();
+
+        this.registry = new MountRegistry(this, cfg);
+        registry.start();
+        getServer().getPluginManager().registerEvents(registry, this);
+
+        this.statService = new MountStatService(this, cfg, journal, registry, allocations, profiles);
+        leashSinkingService = new LeashSinkingService(this, cfg, journal, allocations, profiles);
         getServer().getPluginManager().registerEvents(leashSinkingService, this);
         leashSinkingService.start();
 
-        Bukkit.getPluginManager().registerEvents(new SpawnListener(this, cfg, statService), this);
-        Bukkit.getPluginManager().registerEvents(new MountListener(this, cfg, statService), this);
-        Bukkit.getPluginManager().registerEvents(new VehicleMoveListener(this, cfg), this);
+        normalizationQueue = new HorseNormalizationQueue(this, cfg, statService);
+        getServer().getPluginManager().registerEvents(normalizationQueue, this);
+        normalizationQueue.start();
+
+        idleMounts = new IdleMountManager(this, cfg);
+        if (cfg.aiThrottleEnabled) {
+            getServer().getPluginManager().registerEvents(idleMounts, this);
+            idleMounts.start();
+        }
+
+        Bukkit.getPluginManager().registerEvents(new SpawnListener(this, cfg, normalizationQueue, registry), this);
+        Bukkit.getPluginManager().registerEvents(new MountListener(this, cfg, statService, journal, registry), this);
+        MountKinematics kinematics = new MountKinematics();
+        Bukkit.getPluginManager().registerEvents(kinematics, this);
+        moveListener = new VehicleMoveListener(this, cfg, journal, allocations, kinematics, profiles, statService);
+        Bukkit.getPluginManager().registerEvents(moveListener, this);
+        moveListener.start();
+        Bukkit.getPluginManager().registerEvents(new MountedCombatListener(this, cfg, kinematics), this);
 
         statService.start();
+        getServer().getServicesManager().register(CavalryApi.class, statService, this, ServicePriority.Normal);
+
+        stableStore = new StableStore(this);
+        stableStore.start();
+        stableService = new StableService(this, cfg, stableStore, registry);
+        stableService.start();
+        getServer().getPluginManager().registerEvents(stableService, this);
+
+        if (getCommand("mounts") != null) {
+            getCommand("mounts").setExecutor(new MountsCommand(cfg, registry));
+        }
+        if (getCommand("stable") != null) {
+            getCommand("stable").setExecutor(new StableCommand(cfg, stableService));
+        }
 
         if (cfg.debugEnabled) {
             getLogger().info("HICP_Cavalry enabled with DEBUG MODE active!");
@@ -45,7 +114,7 @@ public final class HICPCavalry extends JavaPlugin {
                 getLogger().info("  - Combat");
             if (cfg.debugTraversalCliffDetection || cfg.debugTraversalWaterChecks || cfg.debugTraversalHazardDetection || cfg.debugTraversalMovementBlocked)
                 getLogger().info("  - Traversal");
-            if (cfg.debugPerformanceTickTiming || cfg.debugPerformanceMountState)
+            if (cfg.debugPerformanceTickTiming || cfg.debugPerformanceMountState || cfg.debugPerformanceAllocations)
                 getLogger().info("  - Performance");
         } else {
             getLogger().info("HICP_Cavalry enabled.");
@@ -54,9 +123,18 @@ public final class HICPCavalry extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        getServer().getServicesManager().unregisterAll(this);
         if (leashSinkingService != null) leashSinkingService.stop();
+        if (normalizationQueue != null) normalizationQueue.stop();
+        if (idleMounts != null) idleMounts.stop();
+        if (moveListener != null) moveListener.stop();
 
+        if (stableService != null) stableService.stop();
+        if (stableStore != null) stableStore.stop();
         if (statService != null) statService.stop();
+        if (journal != null) journal.stop();
+        if (registry != null) registry.stop();
+        if (allocations != null) allocations.stop();
         getLogger().info("HICP_Cavalry disabled.");
     }
 }
\ No newline at end of file
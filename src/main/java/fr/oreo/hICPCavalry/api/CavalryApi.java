@@ -0,0 +1,29 @@
+package fr.oreo.hICPCavalry.api;
+
+import java.util.UUID;
+
+/**
+ * Read-only view of the cavalry state of ridden mounts, for other plugins.
+ *
+ * Obtain it from the services manager:
+ * <pre>
+ * CavalryApi api = Bukkit.getServicesManager().load(CavalryApi.class);
+ * </pre>
+ * Everything is answered from the in-memory session of the stat refresh, without touching
+ * the PDC or attributes, so values are as fresh as the last refresh
+ * ({@code performance.stat_refresh_period_ticks}). Listen to {@link MountPenaltyChangeEvent}
+ * to cache instead of polling. Main thread only.
+ */
+public interface CavalryApi {
+
+    /**
+     * @return current stats of a ridden mount, or null if it is not ridden, not penalized in its
+     *         world, or has not been refreshed yet
+     */
+    MountStats stats(UUID mount);
+
+    /**
+     * @return stats of the mount the player is riding, or null as for {@link #stats(UUID)}
+     */
+    MountStats statsOfRider(UUID player);
+}
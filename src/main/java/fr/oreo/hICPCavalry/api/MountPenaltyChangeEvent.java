@@ -0,0 +1,68 @@
+package fr.oreo.hICPCavalry.api;
+
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Called when the speed or jump multiplier of a ridden mount changes, including back to 1
+ * when its rider dismounts. Informational only; only created when something listens.
+ */
+public final class MountPenaltyChangeEvent extends Event {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final LivingEntity mount;
+    private final Player rider;
+    private final double oldSpeedMultiplier;
+    private final double oldJumpMultiplier;
+    private final double speedMultiplier;
+    private final double jumpMultiplier;
+
+    public MountPenaltyChangeEvent(LivingEntity mount, Player rider, double oldSpeedMultiplier, double oldJumpMultiplier,
+                                   double speedMultiplier, double jumpMultiplier) {
+        this.mount = mount;
+        this.rider = rider;
+        this.oldSpeedMultiplier = oldSpeedMultiplier;
+        this.oldJumpMultiplier = oldJumpMultiplier;
+        this.speedMultiplier = speedMultiplier;
+        this.jumpMultiplier = jumpMultiplier;
+    }
+
+    public LivingEntity getMount() {
+        return mount;
+    }
+
+    /**
+     * @return the rider, or null if the mount lost its rider without a dismount event
+     */
+    public Player getRider() {
+        return rider;
+    }
+
+    public double getOldSpeedMultiplier() {
+        return oldSpeedMultiplier;
+    }
+
+    public double getOldJumpMultiplier() {
+        return oldJumpMultiplier;
+    }
+
+    public double getSpeedMultiplier() {
+        return speedMultiplier;
+    }
+
+    public double getJumpMultiplier() {
+        return jumpMultiplier;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,30 @@
+package fr.oreo.hICPCavalry.api;
+
+import java.util.UUID;
+
+/**
+ * Stats of a ridden mount as of its last refresh. Immutable, safe to keep.
+ *
+ * @param baseSpeed       movement speed attribute base, before cavalry penalties
+ * @param baseJump        jump strength attribute base, before cavalry penalties
+ * @param speedMultiplier armor and environment multiplier on speed (1 = no penalty)
+ * @param jumpMultiplier  armor and environment multiplier on jump (1 = no penalty)
+ * @param speed           movement speed after penalties and clamping
+ * @param jump            jump strength after penalties
+ * @param lastTraversal   verdict of the mount's last traversal check
+ * @param refreshTick     server tick of the refresh these values come from
+ */
+public record MountStats(
+        UUID mount,
+        UUID rider,
+        double baseSpeed,
+        double baseJump,
+        double speedMultiplier,
+        double jumpMultiplier,
+        double speed,
+        double jump,
+        int riderArmorPoints,
+        int mountArmorPoints,
+        TraversalVerdict lastTraversal,
+        int refreshTick
+) {}
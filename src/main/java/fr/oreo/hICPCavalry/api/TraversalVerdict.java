@@ -0,0 +1,28 @@
+package fr.oreo.hICPCavalry.api;
+
+import fr.oreo.hICPCavalry.core.TraversalResult;
+
+/**
+ * Outcome of a traversal check of a mounted move: a {@link TraversalResult}, or
+ * {@link #NONE} while no check has run.
+ */
+public enum TraversalVerdict {
+    /** No check has run for this mount yet (traversal disabled in its world, or standing still). */
+    NONE,
+    PASS,
+    WATER,
+    CLIFF,
+    HAZARD,
+    /** The way ahead is in a chunk that is not loaded yet; the move was held, not refused. */
+    HOLD;
+
+    public static TraversalVerdict of(TraversalResult result) {
+        return switch (result) {
+            case PASS -> PASS;
+            case WATER -> WATER;
+            case CLIFF -> CLIFF;
+            case HAZARD -> HAZARD;
+            case HOLD -> HOLD;
+        };
+    }
+}
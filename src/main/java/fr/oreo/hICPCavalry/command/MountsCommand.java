@@ -0,0 +1,79 @@
+package fr.oreo.hICPCavalry.command;
+
+import fr.oreo.hICPCavalry.config.CavalryConfig;
+import fr.oreo.hICPCavalry.registry.MountEntry;
+import fr.oreo.hICPCavalry.registry.MountRegistry;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * /mounts [player] - lists owned horses and camels from the mount registry, without loading chunks.
+ */
+public final class MountsCommand implements CommandExecutor {
+
+    private final CavalryConfig cfg;
+    private final MountRegistry registry;
+
+    public MountsCommand(CavalryConfig cfg, MountRegistry registry) {
+        this.cfg = cfg;
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (!registry.isEnabled()) {
+            sender.sendMessage("§cThe mount registry is disabled.");
+            return true;
+        }
+
+        UUID owner;
+        String ownerName;
+        if (args.length >= 1) {
+            if (!sender.hasPermission("hicpcavalry.mounts.others")) {
+                sender.sendMessage("§cYou may only list your own mounts.");
+                return true;
+            }
+            // Cached lookup only: never block the main thread on a profile request
+            OfflinePlayer target = Bukkit.getOfflinePlayerIfCached(args[0]);
+            if (target == null) {
+                sender.sendMessage("§cUnknown player: " + args[0]);
+                return true;
+            }
+            owner = target.getUniqueId();
+            ownerName = target.getName() == null ? args[0] : target.getName();
+        } else if (sender instanceof Player p) {
+            owner = p.getUniqueId();
+            ownerName = p.getName();
+        } else {
+            sender.sendMessage("§cUsage: /" + label + " <player>");
+            return true;
+        }
+
+        List<MountEntry> mounts = registry.byOwner(owner);
+        if (mounts.isEmpty()) {
+            sender.sendMessage("§7" + ownerName + " has no registered mounts.");
+            return true;
+        }
+
+        sender.sendMessage("§6" + ownerName + "'s mounts (" + mounts.size() + "):");
+        for (MountEntry m : mounts) {
+            sender.sendMessage(String.format(Locale.ROOT,
+                    "§e%s §7%s §f%s %d %d %d §7speed §f%.2f bps §7jump §f%.2f §7armor §f%s",
+                    m.type(),
+                    m.id().toString().substring(0, 8),
+                    m.world(), m.x(), m.y(), m.z(),
+                    m.baseSpeed() * cfg.speedToBpsFactor,
+                    m.baseJump() * cfg.jumpStrengthToBlocksFactor,
+                    m.armor()));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,122 @@
+package fr.oreo.hICPCavalry.command;
+
+import fr.oreo.hICPCavalry.config.CavalryConfig;
+import fr.oreo.hICPCavalry.stable.StableService;
+import fr.oreo.hICPCavalry.stable.StabledHorse;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Horse;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * /stable [list] | put | take &lt;number&gt; - put away the ridden horse or take a stabled one out.
+ */
+public final class StableCommand implements CommandExecutor {
+
+    private final CavalryConfig cfg;
+    private final StableService stables;
+
+    public StableCommand(CavalryConfig cfg, StableService stables) {
+        this.cfg = cfg;
+        this.stables = stables;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (!stables.isEnabled()) {
+            sender.sendMessage("§cStables are disabled.");
+            return true;
+        }
+        if (!(sender instanceof Player p)) {
+            sender.sendMessage("§cOnly players have a stable.");
+            return true;
+        }
+
+        String sub = args.length == 0 ? "list" : args[0].toLowerCase(Locale.ROOT);
+        switch (sub) {
+            case "list" -> list(p);
+            case "put" -> put(p);
+            case "take" -> take(p, label, args);
+            default -> p.sendMessage("§cUsage: /" + label + " [list|put|take <number>]");
+        }
+        return true;
+    }
+
+    private void list(Player p) {
+        List<StabledHorse> horses = stables.list(p.getUniqueId());
+        if (horses.isEmpty()) {
+            p.sendMessage("§7Your stable is empty.");
+            return;
+        }
+
+        p.sendMessage("§6Your stable (" + horses.size() + "/" + cfg.stableMaxPerPlayer + "):");
+        for (int i = 0; i < horses.size(); i++) {
+            StabledHorse h = horses.get(i);
+            p.sendMessage(String.format(Locale.ROOT,
+                    "§e%d. §f%s §7speed §f%.2f bps §7jump §f%.2f §7from §f%s %d %d %d",
+                    i + 1,
+                    h.name() == null ? "Horse " + h.id().toString().substring(0, 8) : h.name(),
+                    h.speed() * cfg.speedToBpsFactor,
+                    h.jump() * cfg.jumpStrengthToBlocksFactor,
+                    h.world(), h.x(), h.y(), h.z()));
+        }
+    }
+
+    private void put(Player p) {
+        Entity v = p.getVehicle();
+        if (!(v instanceof Horse h) || !p.getUniqueId().equals(h.getOwnerUniqueId())) {
+            p.sendMessage("§cRide one of your own horses to stable it.");
+            return;
+        }
+
+        if (!stables.isWritable(p.getUniqueId())) {
+            p.sendMessage("§cYour stable could not be read and is locked; ask an administrator.");
+            return;
+        }
+
+        h.removePassenger(p);
+        stables.stable(h).thenAccept(ok -> {
+            if (ok) {
+                p.sendMessage("§aYour horse was stabled.");
+                return;
+            }
+            if (h.isValid() && p.isOnline() && p.getVehicle() == null) h.addPassenger(p);
+            p.sendMessage("§cThis horse cannot be stabled (your stable may be full).");
+        });
+    }
+
+    private void take(Player p, String label, String[] args) {
+        if (args.length < 2) {
+            p.sendMessage("§cUsage: /" + label + " take <number>");
+            return;
+        }
+        if (!stables.isWritable(p.getUniqueId())) {
+            p.sendMessage("§cYour stable could not be read and is locked; ask an administrator.");
+            return;
+        }
+        if (cfg.stableTakeOnlyInZone && stables.zoneAt(p.getLocation()) == null) {
+            p.sendMessage("§cYou can only take horses out inside a stable.");
+            return;
+        }
+
+        int index;
+        try {
+            index = Integer.parseInt(args[1]) - 1;
+        } catch (NumberFormatException ex) {
+            p.sendMessage("§cNot a number: " + args[1]);
+            return;
+        }
+
+        Horse h = stables.take(p.getUniqueId(), index, p.getLocation());
+        if (h == null) {
+            p.sendMessage("§cNo stabled horse number " + args[1] + ".");
+            return;
+        }
+        p.sendMessage("§aYour horse is back.");
+    }
+}
@@ -1,11 +1,17 @@
 package fr.oreo.hICPCavalry.config;
 
 import org.bukkit.Material;
+import org.bukkit.configuration.Configuration;
 import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
 import org.bukkit.configuration.file.FileConfiguration;
 
-import java.util.EnumMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 
 public final class CavalryConfig {
 
@@ -22,22 +28,23 @@ public final class CavalryConfig {
     public final boolean debugEnvironmentWeatherChecks;
     public final boolean debugCombatReachBonus;
     public final boolean debugCombatModifierChanges;
+    public final boolean debugCombatChargeBonus;
     public final boolean debugTraversalCliffDetection;
     public final boolean debugTraversalWaterChecks;
     public final boolean debugTraversalHazardDetection;
     public final boolean debugTraversalMovementBlocked;
     public final boolean debugPerformanceTickTiming;
     public final boolean debugPerformanceMountState;
-    public final double horseArmorPointMultiplier;
+    public final boolean debugPerformanceAllocations;
+    public final int debugAllocationReportSeconds;
 
     public final boolean horsesEnabled;
     public final double horseSpawnMaxHealth;
     public final boolean horseFillHealth;
     public final double horseCapBps;
     public final double speedToBpsFactor;
+    /** True if lead sinking is enabled in at least one world profile. */
     public final boolean leadSinkEnabled;
-    public final int leadSinkStartHorseArmorPoints;
-    public final double leadSinkDownVelocityPerTick;
     public final int leadSinkTaskPeriodTicks;
 
     public final double horseBaseJumpBlocks;
@@ -45,10 +52,19 @@ public final class CavalryConfig {
 
     public final double clampMin;
     public final double clampMax;
-    public final boolean horseStoreBasePdc;
+
+    /**
+     * Config key: horses.base_stats_mode (attribute | seeded).
+     * In seeded mode horse base stats come from the UUID (see SeededStats) instead of the horse's own attributes.
+     */
+    public final boolean horseSeededBaseStats;
+    public final double seededVariationPct;
+
+    /** Attribute values a normalized horse gets, derived from the bps/block settings above. */
+    public final double horseNormalizedSpeed;
+    public final double horseNormalizedJump;
 
     public final boolean camelsEnabled;
-    public final boolean camelStoreBasePdc;
 
     /**
      * If false, camels remain vanilla (no speed/jump penalties applied).
@@ -58,36 +74,116 @@ public final class CavalryConfig {
      */
     public final boolean camelApplyPenalties;
 
-    public final boolean armorEnabled;
-    public final double speedPenaltyPerPointPct;
-    public final double jumpPenaltyPerPointPct;
-    public final double maxTotalReductionPct;
-    public final boolean leatherCountsAsZero;
-    public final Map<Material, Integer> horseArmorPoints;
-
-    public final boolean envEnabled;
-    public final double envExtraReductionPct;
-    public final boolean envMud;
-    public final boolean envMuddyRoots;
-    public final boolean envSnow;
-    public final boolean requireStormMud;
-    public final boolean requireStormSnow;
-
-    public final boolean traversalEnabled;
-    public final double cliffDropBlocks;
-    public final double hazardScanDepth;
-    public final boolean hazardLava;
-    public final boolean hazardMagma;
-
-    public final boolean waterEnabled;
-    public final double waterRefuseDepthAtLeast;
-    public final boolean waterAntiStuck;
+    /**
+     * Armor, environment and traversal rules from the global sections.
+     * Worlds listed under {@code worlds:} get their own merged profile in {@link #worldProfiles};
+     * hot paths resolve them through {@link WorldProfiles}.
+     */
+    public final WorldProfile defaults;
+    /** Override profiles by lower-case world name. */
+    public final Map<String, WorldProfile> worldProfiles;
+
+    /** Problems found while reading the file (unknown names and the like), logged by the plugin on enable. */
+    public final List<String> warnings = new ArrayList<>();
 
     public final boolean combatEnabled;
     public final double swordReachBonus;
     public final boolean onlyVanillaSwords;
 
+    /**
+     * Lance charge: sword hits from a moving mount deal extra damage, scaled linearly from
+     * chargeMinSpeedBps (no bonus) to chargeFullSpeedBps (chargeMaxBonusPct).
+     *
+     * Config keys: mounted_combat.charge.*
+     */
+    public final boolean chargeEnabled;
+    public final double chargeMinSpeedBps;
+    public final double chargeFullSpeedBps;
+    public final double chargeMaxBonusPct;
+
+    /**
+     * Rider HUD with current multipliers and penalty causes, sent only when it changes.
+     * Config keys: hud.enabled, hud.mode (action_bar | boss_bar)
+     */
+    public final boolean hudEnabled;
+    public final boolean hudBossBar;
+
+    /**
+     * Stabling: tamed horses left unridden in a zone for stableIdleMinutes (or put away with /stable)
+     * are stored in plugins/HICP_Cavalry/stables/ and despawned until taken out again.
+     */
+    public final boolean stablesEnabled;
+    public final int stableIdleMinutes;
+    public final int stableScanSeconds;
+    public final int stableMaxPerPlayer;
+    public final boolean stableTakeOnlyInZone;
+    public final List<StableZone> stableZones;
+
+    /**
+     * Weights of custom armor items, see ArmorWeights. Fallback keys are a material name, or
+     * MATERIAL#custom_model_data for one custom item.
+     */
+    public final boolean armorWeightsFromAttributes;
+    public final Map<String, Integer> armorWeightFallback;
+
+    /**
+     * Speed anomaly detection: a rider whose mean speed over anomalyWindowTicks stays above
+     * the mount's expected top speed plus anomalyTolerancePct for anomalySustainTicks is flagged.
+     */
+    public final boolean anomalyEnabled;
+    public final int anomalyWindowTicks;
+    public final double anomalyTolerancePct;
+    public final int anomalySustainTicks;
+    public final int anomalyCooldownSeconds;
+
+    /**
+     * Idle mount AI throttling: tamed horses/camels with no rider, no leash and no player within
+     * aiThrottleRadius stop ticking AI (Mob#setAware) until someone comes close.
+     */
+    public final boolean aiThrottleEnabled;
+    public final double aiThrottleRadius;
+    public final int aiThrottleChecksPerTick;
+
+    public final boolean registryEnabled;
+    public final int registryFlushIntervalSeconds;
+
+    public final boolean journalEnabled;
+    public final int journalSegmentSizeMb;
+    public final int journalMaxSegments;
+
     public final int refreshPeriodTicks;
+    public final int parallelComputeThreads;
+    public final int parallelComputeMinRiders;
+
+    /**
+     * Per-rider refresh intervals: multiples of refreshPeriodTicks that grow while a rider's
+     * result does not change (faster growth when standing still) and reset when it does.
+     * All intervals are multiplied by adaptiveOverloadMultiplier while the server's average
+     * tick time is above adaptiveMsptThreshold.
+     */
+    public final boolean adaptiveRefreshEnabled;
+    public final int adaptiveMaxIdleTicks;
+    public final int adaptiveMaxMovingTicks;
+    public final double adaptiveStillBlocks;
+    public final double adaptiveMsptThreshold;
+    public final double adaptiveOverloadMultiplier;
+
+    /**
+     * Chunks along the heading of riders faster than prefetchMinSpeedBps are loaded
+     * asynchronously, prefetchChunksAhead chunks ahead, when the rider enters a new chunk.
+     */
+    public final boolean prefetchEnabled;
+    public final double prefetchMinSpeedBps;
+    public final int prefetchChunksAhead;
+
+    public final int normalizationMigrationPerTick;
+    public final double normalizationMaxMillisPerTick;
+
+    /**
+     * Hash of every setting that shapes horse normalization.
+     * Stored on the horse, so a changed config re-normalizes it and an unchanged one is skipped.
+     */
+    public final int normalizationStamp;
 
     public CavalryConfig(FileConfiguration c) {
         // Debug settings
@@ -104,12 +200,15 @@ public final class CavalryConfig {
         debugEnvironmentWeatherChecks = c.getBoolean("debug.environment.weather_checks", true);
         debugCombatReachBonus = c.getBoolean("debug.combat.reach_bonus", true);
         debugCombatModifierChanges = c.getBoolean("debug.combat.modifier_changes", true);
+        debugCombatChargeBonus = c.getBoolean("debug.combat.charge_bonus", true);
         debugTraversalCliffDetection = c.getBoolean("debug.traversal.cliff_detection", true);
         debugTraversalWaterChecks = c.getBoolean("debug.traversal.water_checks", true);
         debugTraversalHazardDetection = c.getBoolean("debug.traversal.hazard_detection", true);
         debugTraversalMovementBlocked = c.getBoolean("debug.traversal.movement_blocked", true);
         debugPerformanceTickTiming = c.getBoolean("debug.performance.tick_timing", false);
         debugPerformanceMountState = c.getBoolean("debug.performance.mount_state", false);
+        debugPerformanceAllocations = c.getBoolean("debug.performance.allocation_budgets", false);
+        debugAllocationReportSeconds = c.getInt("debug.performance.allocation_report_seconds", 60);
 
         horsesEnabled = c.getBoolean("horses.enabled", true);
         horseSpawnMaxHealth = c.getDouble("horses.spawn_max_health", 30.0);
@@ -122,61 +221,151 @@ public final class CavalryConfig {
 
         clampMin = c.getDouble("horses.clamp_attribute_min", 0.05);
         clampMax = c.getDouble("horses.clamp_attribute_max", 0.60);
-        horseStoreBasePdc = c.getBoolean("horses.store_base_stats_in_pdc", true);
+        horseSeededBaseStats = "seeded".equalsIgnoreCase(c.getString("horses.base_stats_mode", "attribute"));
+        seededVariationPct = Math.max(0.0, c.getDouble("horses.seeded_variation_percent", 0.0));
+
+        horseNormalizedSpeed = Math.max(clampMin, Math.min(clampMax, horseCapBps / Math.max(1e-6, speedToBpsFactor)));
+        horseNormalizedJump = Math.max(0.05, horseBaseJumpBlocks / Math.max(1e-6, jumpStrengthToBlocksFactor));
 
         camelsEnabled = c.getBoolean("camels.enabled", true);
-        camelStoreBasePdc = c.getBoolean("camels.store_base_stats_in_pdc", true);
 
         // camels stay vanilla unless explicitly allowed
         camelApplyPenalties = c.getBoolean("camels.apply_penalties", false);
 
-        armorEnabled = c.getBoolean("armor_penalties.enabled", true);
-        speedPenaltyPerPointPct = c.getDouble("armor_penalties.speed_reduction_per_armor_point_percent", 1.0);
-        jumpPenaltyPerPointPct = c.getDouble("armor_penalties.jump_reduction_per_armor_point_percent", 1.0);
-        maxTotalReductionPct = c.getDouble("armor_penalties.max_total_reduction_percent", 60.0);
-        leatherCountsAsZero = c.getBoolean("armor_penalties.leather_counts_as_zero", true);
-        horseArmorPointMultiplier = c.getDouble("armor_penalties.horse_armor_point_multiplier", 1.0);
-        leadSinkEnabled = c.getBoolean("traversal_rules.water.sinking_on_lead.enabled", true);
-        leadSinkStartHorseArmorPoints = c.getInt("traversal_rules.water.sinking_on_lead.start_sinking_at_horse_armor_points", 7);
-        leadSinkDownVelocityPerTick = c.getDouble("traversal_rules.water.sinking_on_lead.down_velocity_per_tick", 0.08);
         leadSinkTaskPeriodTicks = c.getInt("traversal_rules.water.sinking_on_lead.task_period_ticks", 1);
 
-        horseArmorPoints = new EnumMap<>(Material.class);
-        ConfigurationSection hap = c.getConfigurationSection("armor_penalties.horse_armor_points");
-        if (hap != null) {
-            for (String k : hap.getKeys(false)) {
-                Material m = Material.matchMaterial(k);
-                if (m != null) horseArmorPoints.put(m, hap.getInt(k));
+        defaults = new WorldProfile("*", c, warnings);
+        Map<String, WorldProfile> profiles = new HashMap<>();
+        boolean anyLeadSink = defaults.leadSinkEnabled;
+        ConfigurationSection worlds = c.getConfigurationSection("worlds");
+        if (worlds != null) {
+            for (String world : worlds.getKeys(false)) {
+                ConfigurationSection override = worlds.getConfigurationSection(world);
+                if (override == null) continue;
+                WorldProfile profile = new WorldProfile(world, merged(c, override), warnings);
+                profiles.put(world.toLowerCase(Locale.ROOT), profile);
+                anyLeadSink |= profile.leadSinkEnabled;
             }
         }
+        worldProfiles = Map.copyOf(profiles);
+        leadSinkEnabled = anyLeadSink;
 
-        envEnabled = c.getBoolean("environment_penalties.enabled", true);
-        envExtraReductionPct = c.getDouble("environment_penalties.extra_reduction_percent", 5.0);
+        combatEnabled = c.getBoolean("mounted_combat.enabled", true);
+        swordReachBonus = c.getDouble("mounted_combat.sword_reach_bonus_blocks", 1.0);
+        onlyVanillaSwords = c.getBoolean("mounted_combat.apply_only_to_vanilla_swords", true);
 
-        envMud = c.getBoolean("environment_penalties.blocks.mud", true);
-        envMuddyRoots = c.getBoolean("environment_penalties.blocks.muddy_mangrove_roots", true);
-        envSnow = c.getBoolean("environment_penalties.blocks.snow", true);
+        chargeEnabled = c.getBoolean("mounted_combat.charge.enabled", true);
+        chargeMinSpeedBps = Math.max(0.0, c.getDouble("mounted_combat.charge.min_speed_bps", 6.0));
+        chargeFullSpeedBps = Math.max(chargeMinSpeedBps + 0.1, c.getDouble("mounted_combat.charge.full_speed_bps", 14.0));
+        chargeMaxBonusPct = Math.max(0.0, c.getDouble("mounted_combat.charge.max_bonus_percent", 50.0));
 
-        requireStormMud = c.getBoolean("environment_penalties.require_storm_for_mud", true);
-        requireStormSnow = c.getBoolean("environment_penalties.require_storm_for_snow", true);
+        hudEnabled = c.getBoolean("hud.enabled", false);
+        hudBossBar = "boss_bar".equalsIgnoreCase(c.getString("hud.mode", "action_bar"));
 
-        traversalEnabled = c.getBoolean("traversal_rules.enabled", true);
-        cliffDropBlocks = c.getDouble("traversal_rules.cliff_drop_blocks", 2.5);
-        hazardScanDepth = c.getDouble("traversal_rules.hazard_scan_depth_blocks", 2.5);
-        hazardLava = c.getBoolean("traversal_rules.hazards.lava", true);
-        hazardMagma = c.getBoolean("traversal_rules.hazards.magma_block", true);
+        stablesEnabled = c.getBoolean("stables.enabled", false);
+        stableIdleMinutes = c.getInt("stables.idle_minutes", 10);
+        stableScanSeconds = Math.max(5, c.getInt("stables.scan_interval_seconds", 30));
+        stableMaxPerPlayer = c.getInt("stables.max_per_player", 27);
+        stableTakeOnlyInZone = c.getBoolean("stables.take_only_in_zone", true);
+        List<StableZone> zones = new ArrayList<>();
+        for (Map<?, ?> z : c.getMapList("stables.zones")) {
+            Object world = z.get("world");
+            if (!(world instanceof String w) || !(z.get("min") instanceof List<?> min) || !(z.get("max") instanceof List<?> max)
+                    || min.size() != 3 || max.size() != 3) {
+                warnings.add("Ignoring stable zone without world/min/max: " + z);
+                continue;
+            }
+            Object name = z.get("name");
+            zones.add(new StableZone(name == null ? w : name.toString(), w,
+                    Math.min(coord(min, 0), coord(max, 0)), Math.min(coord(min, 1), coord(max, 1)), Math.min(coord(min, 2), coord(max, 2)),
+                    Math.max(coord(min, 0), coord(max, 0)), Math.max(coord(min, 1), coord(max, 1)), Math.max(coord(min, 2), coord(max, 2))));
+        }
+        stableZones = List.copyOf(zones);
 
-        waterEnabled = c.getBoolean("traversal_rules.water.enabled", true);
-        waterRefuseDepthAtLeast = c.getDouble(
-                "traversal_rules.water.refuse_if_depth_at_least_blocks",
-                2.0
-        );
-        waterAntiStuck = c.getBoolean("traversal_rules.water.anti_stuck_allow_if_all_neighbors_water", true);
+        armorWeightsFromAttributes = c.getBoolean("armor_weights.use_attribute_modifiers", true);
+        Map<String, Integer> fallback = new HashMap<>();
+        ConfigurationSection fs = c.getConfigurationSection("armor_weights.fallback");
+        if (fs != null) {
+            for (String k : fs.getKeys(false)) {
+                String key = k.toUpperCase(Locale.ROOT);
+                int hash = key.indexOf('#');
+                Material m = Material.matchMaterial(hash < 0 ? key : key.substring(0, hash));
+                if (m == null) {
+                    warnings.add("Ignoring armor weight for unknown material: " + k);
+                    continue;
+                }
+                fallback.put(hash < 0 ? m.name() : m.name() + key.substring(hash), Math.max(0, fs.getInt(k)));
+            }
+        }
+        armorWeightFallback = Map.copyOf(fallback);
 
-        combatEnabled = c.getBoolean("mounted_combat.enabled", true);
-        swordReachBonus = c.getDouble("mounted_combat.sword_reach_bonus_blocks", 1.0);
-        onlyVanillaSwords = c.getBoolean("mounted_combat.apply_only_to_vanilla_swords", true);
+        anomalyEnabled = c.getBoolean("anomaly_detection.enabled", false);
+        anomalyWindowTicks = Math.max(5, Math.min(100, c.getInt("anomaly_detection.window_ticks", 20)));
+        anomalyTolerancePct = Math.max(0.0, c.getDouble("anomaly_detection.tolerance_percent", 15.0));
+        anomalySustainTicks = Math.max(1, c.getInt("anomaly_detection.sustain_ticks", 40));
+        anomalyCooldownSeconds = Math.max(0, c.getInt("anomaly_detection.flag_cooldown_seconds", 30));
+
+        aiThrottleEnabled = c.getBoolean("ai_throttle.enabled", false);
+        aiThrottleRadius = Math.max(8.0, c.getDouble("ai_throttle.player_radius", 48.0));
+        aiThrottleChecksPerTick = Math.max(1, c.getInt("ai_throttle.checks_per_tick", 20));
+
+        registryEnabled = c.getBoolean("registry.enabled", true);
+        registryFlushIntervalSeconds = c.getInt("registry.flush_interval_seconds", 5);
+
+        journalEnabled = c.getBoolean("journal.enabled", false);
+        journalSegmentSizeMb = Math.max(1, Math.min(1024, c.getInt("journal.segment_size_mb", 16)));
+        journalMaxSegments = c.getInt("journal.max_segments", 8);
 
         refreshPeriodTicks = c.getInt("performance.stat_refresh_period_ticks", 2);
+        parallelComputeThreads = Math.max(0, c.getInt("performance.parallel_compute_threads", 2));
+        parallelComputeMinRiders = c.getInt("performance.parallel_compute_min_riders", 64);
+        prefetchEnabled = c.getBoolean("performance.chunk_prefetch.enabled", true);
+        prefetchMinSpeedBps = c.getDouble("performance.chunk_prefetch.min_speed_bps", 5.0);
+        prefetchChunksAhead = Math.max(1, Math.min(8, c.getInt("performance.chunk_prefetch.chunks_ahead", 3)));
+        adaptiveRefreshEnabled = c.getBoolean("performance.adaptive_refresh.enabled", true);
+        int minInterval = Math.max(1, refreshPeriodTicks);
+        adaptiveMaxIdleTicks = Math.max(minInterval, c.getInt("performance.adaptive_refresh.max_idle_interval_ticks", 80));
+        adaptiveMaxMovingTicks = Math.max(minInterval, c.getInt("performance.adaptive_refresh.max_moving_interval_ticks", 40));
+        adaptiveStillBlocks = Math.max(0.0, c.getDouble("performance.adaptive_refresh.still_blocks", 0.5));
+        adaptiveMsptThreshold = c.getDouble("performance.adaptive_refresh.mspt_threshold", 45.0);
+        adaptiveOverloadMultiplier = Math.max(1.0, c.getDouble("performance.adaptive_refresh.overload_multiplier", 2.0));
+        normalizationMigrationPerTick = c.getInt("performance.normalization_migration_per_tick", 8);
+        normalizationMaxMillisPerTick = c.getDouble("performance.normalization_max_millis_per_tick", 1.0);
+
+        normalizationStamp = Objects.hash(
+                horseSpawnMaxHealth,
+                horseCapBps,
+                speedToBpsFactor,
+                horseBaseJumpBlocks,
+                jumpStrengthToBlocksFactor,
+                clampMin,
+                clampMax,
+                horseSeededBaseStats,
+                seededVariationPct
+        );
+    }
+
+    private static int coord(List<?> xyz, int i) {
+        Object v = xyz.get(i);
+        return v instanceof Number n ? n.intValue() : 0;
+    }
+
+    /**
+     * Global settings with the leaf values of {@code override} written on top.
+     * Nested sections merge key by key, so a world can change one armor value and keep the rest.
+     */
+    private static ConfigurationSection merged(ConfigurationSection global, ConfigurationSection override) {
+        MemoryConfiguration out = new MemoryConfiguration();
+        // Keys missing from the file still fall back to the bundled config.yml, as for the global profile
+        if (global instanceof Configuration root && root.getDefaults() != null) {
+            out.setDefaults(root.getDefaults());
+        }
+        for (Map.Entry<String, Object> e : global.getValues(true).entrySet()) {
+            if (!(e.getValue() instanceof ConfigurationSection)) out.set(e.getKey(), e.getValue());
+        }
+        for (Map.Entry<String, Object> e : override.getValues(true).entrySet()) {
+            if (!(e.getValue() instanceof ConfigurationSection)) out.set(e.getKey(), e.getValue());
+        }
+        return out;
     }
-}
\ No newline at end of file
+}
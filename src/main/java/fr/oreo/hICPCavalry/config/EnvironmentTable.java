@@ -0,0 +1,182 @@
+package fr.oreo.hICPCavalry.config;
+
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Registry;
+import org.bukkit.block.Biome;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Environment modifiers compiled into lookup tables.
+ *
+ * Each rule from {@code environment_penalties.modifiers} adds its percent (positive slows,
+ * negative speeds up) to every (mount kind, weather) slot it applies to. Surface rules are
+ * summed into one array per slot indexed by {@link Material#ordinal()}. Biome and temperature
+ * rules are folded per biome cell by {@link #biomePct}, which the caller caches per chunk
+ * section. A lookup costs the same however many rules there are.
+ */
+public final class EnvironmentTable {
+
+    public static final int HORSE = 0;
+    public static final int CAMEL = 1;
+
+    /** Slots: kind * 2 + (storm ? 1 : 0). */
+    public static final int SLOTS = 4;
+
+    private final double[][] surfacePct = new double[SLOTS][];
+    private final List<BiomeRule> biomeRules = new ArrayList<>();
+
+    EnvironmentTable(ConfigurationSection c, String world, List<String> warnings) {
+        int materials = Material.values().length;
+        for (int s = 0; s < SLOTS; s++) surfacePct[s] = new double[materials];
+
+        // Configs written before modifiers existed keep their blocks/storm flags
+        if (c.isSet("environment_penalties.blocks") && !c.isSet("environment_penalties.modifiers")) {
+            compileLegacy(c);
+            return;
+        }
+
+        int n = 0;
+        for (Map<?, ?> raw : c.getMapList("environment_penalties.modifiers")) {
+            n++;
+            double pct = number(raw.get("percent"));
+            if (pct == 0.0) continue;
+
+            boolean requireStorm = Boolean.TRUE.equals(raw.get("require_storm"));
+            boolean[] kinds = kinds(raw.get("mounts"));
+
+            Set<Material> blocks = new HashSet<>();
+            for (String name : strings(raw.get("blocks"))) {
+                Material m = Material.matchMaterial(name);
+                if (m != null) blocks.add(m);
+                else warnings.add("Unknown block '" + name + "' in environment modifier #" + n + " (" + world + ")");
+            }
+
+            Set<Biome> biomes = new HashSet<>();
+            for (String name : strings(raw.get("biomes"))) {
+                NamespacedKey key = NamespacedKey.fromString(name.toLowerCase(Locale.ROOT));
+                Biome b = key == null ? null : Registry.BIOME.get(key);
+                if (b != null) biomes.add(b);
+                else warnings.add("Unknown biome '" + name + "' in environment modifier #" + n + " (" + world + ")");
+            }
+
+            double minTemp = raw.containsKey("min_temperature") ? number(raw.get("min_temperature")) : Double.NEGATIVE_INFINITY;
+            double maxTemp = raw.containsKey("max_temperature") ? number(raw.get("max_temperature")) : Double.POSITIVE_INFINITY;
+            boolean temperature = raw.containsKey("min_temperature") || raw.containsKey("max_temperature");
+
+            if (!blocks.isEmpty()) {
+                if (!biomes.isEmpty() || temperature) {
+                    warnings.add("Environment modifier #" + n + " (" + world + ") mixes blocks with biome/temperature; only blocks are used");
+                }
+                for (Material m : blocks) addSurface(m.ordinal(), pct, requireStorm, kinds);
+            } else if (!biomes.isEmpty() || temperature) {
+                biomeRules.add(new BiomeRule(biomes, minTemp, maxTemp, pct, requireStorm, kinds));
+            }
+        }
+    }
+
+    /** Summed surface percent for the block under the mount. */
+    public double surfacePct(int slot, Material surface) {
+        return surfacePct[slot][surface.ordinal()];
+    }
+
+    public boolean hasBiomeRules() {
+        return !biomeRules.isEmpty();
+    }
+
+    /**
+     * Summed biome and temperature percent for every slot, written to {@code out[off..off + SLOTS)}.
+     */
+    public void biomePct(Biome biome, double temperature, double[] out, int off) {
+        for (int s = 0; s < SLOTS; s++) out[off + s] = 0.0;
+        for (BiomeRule r : biomeRules) {
+            if (!r.biomes.isEmpty() && !r.biomes.contains(biome)) continue;
+            if (temperature < r.minTemp || temperature > r.maxTemp) continue;
+            for (int s = 0; s < SLOTS; s++) {
+                if (r.applies(s)) out[off + s] += r.pct;
+            }
+        }
+    }
+
+    public static int slot(int kind, boolean storm) {
+        return kind * 2 + (storm ? 1 : 0);
+    }
+
+    private void compileLegacy(ConfigurationSection c) {
+        double pct = c.getDouble("environment_penalties.extra_reduction_percent", 5.0);
+        boolean stormMud = c.getBoolean("environment_penalties.require_storm_for_mud", true);
+        boolean stormSnow = c.getBoolean("environment_penalties.require_storm_for_snow", true);
+        boolean[] both = {true, true};
+
+        if (c.getBoolean("environment_penalties.blocks.mud", true)) {
+            addSurface(Material.MUD.ordinal(), pct, stormMud, both);
+        }
+        if (c.getBoolean("environment_penalties.blocks.muddy_mangrove_roots", true)) {
+            addSurface(Material.MUDDY_MANGROVE_ROOTS.ordinal(), pct, stormMud, both);
+        }
+        if (c.getBoolean("environment_penalties.blocks.snow", true)) {
+            addSurface(Material.SNOW.ordinal(), pct, stormSnow, both);
+            addSurface(Material.SNOW_BLOCK.ordinal(), pct, stormSnow, both);
+            addSurface(Material.POWDER_SNOW.ordinal(), pct, stormSnow, both);
+        }
+    }
+
+    private void addSurface(int ordinal, double pct, boolean requireStorm, boolean[] kinds) {
+        for (int s = 0; s < SLOTS; s++) {
+            if (applies(s, requireStorm, kinds)) surfacePct[s][ordinal] += pct;
+        }
+    }
+
+    private static boolean applies(int slot, boolean requireStorm, boolean[] kinds) {
+        boolean storm = (slot & 1) != 0;
+        return kinds[slot >> 1] && (storm || !requireStorm);
+    }
+
+    private static boolean[] kinds(Object raw) {
+        List<String> names = strings(raw);
+        if (names.isEmpty()) return new boolean[]{true, true};
+        boolean[] k = new boolean[2];
+        for (String n : names) {
+            if (n.equalsIgnoreCase("horse")) k[HORSE] = true;
+            else if (n.equalsIgnoreCase("camel")) k[CAMEL] = true;
+        }
+        return k;
+    }
+
+    private static List<String> strings(Object raw) {
+        List<String> out = new ArrayList<>();
+        if (raw instanceof List<?> list) {
+            for (Object o : list) {
+                if (o != null) out.add(o.toString());
+            }
+        } else if (raw != null) {
+            out.add(raw.toString());
+        }
+        return out;
+    }
+
+    private static double number(Object raw) {
+        if (raw instanceof Number num) return num.doubleValue();
+        if (raw != null) {
+            try {
+                return Double.parseDouble(raw.toString());
+            } catch (NumberFormatException ignored) {
+            }
+        }
+        return 0.0;
+    }
+
+    private record BiomeRule(Set<Biome> biomes, double minTemp, double maxTemp, double pct,
+                             boolean requireStorm, boolean[] kinds) {
+        boolean applies(int slot) {
+            return EnvironmentTable.applies(slot, requireStorm, kinds);
+        }
+    }
+}
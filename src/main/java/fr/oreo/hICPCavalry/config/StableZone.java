@@ -0,0 +1,17 @@
+package fr.oreo.hICPCavalry.config;
+
+import org.bukkit.Location;
+
+/**
+ * Axis-aligned box (inclusive block coordinates) where idle horses are stabled.
+ */
+public record StableZone(String name, String world, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+
+    public boolean contains(Location loc) {
+        if (loc.getWorld() == null || !loc.getWorld().getName().equals(world)) return false;
+        int x = loc.getBlockX();
+        int y = loc.getBlockY();
+        int z = loc.getBlockZ();
+        return x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ;
+    }
+}
@@ -0,0 +1,98 @@
+package fr.oreo.hICPCavalry.config;
+
+import fr.oreo.hICPCavalry.core.TraversalRules;
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Armor, environment and traversal rules for one world.
+ *
+ * Built from the global sections with the world's {@code worlds.<name>} overrides
+ * merged on top (see {@link CavalryConfig}), so every field is always set.
+ */
+public final class WorldProfile {
+
+    /** World name, or "*" for the global defaults. */
+    public final String name;
+
+    public final boolean armorEnabled;
+    public final double speedPenaltyPerPointPct;
+    public final double jumpPenaltyPerPointPct;
+    public final double maxTotalReductionPct;
+    public final boolean leatherCountsAsZero;
+    public final double horseArmorPointMultiplier;
+    public final Map<Material, Integer> horseArmorPoints;
+
+    public final boolean envEnabled;
+    public final EnvironmentTable environment;
+
+    public final boolean traversalEnabled;
+    public final double cliffDropBlocks;
+    public final double hazardScanDepth;
+    public final boolean hazardLava;
+    public final boolean hazardMagma;
+    /** How far ahead of the new position the probe sweeps, in ticks of current speed (at least one block). */
+    public final double lookaheadTicks;
+
+    public final boolean waterEnabled;
+    public final double waterRefuseDepthAtLeast;
+    public final boolean waterAntiStuck;
+    /** The traversal fields above, for {@link TraversalRules}. */
+    public final TraversalRules.Settings traversal;
+
+    public final boolean leadSinkEnabled;
+    public final int leadSinkStartHorseArmorPoints;
+    public final double leadSinkDownVelocityPerTick;
+
+    WorldProfile(String name, ConfigurationSection c, List<String> warnings) {
+        this.name = name;
+
+        armorEnabled = c.getBoolean("armor_penalties.enabled", true);
+        speedPenaltyPerPointPct = c.getDouble("armor_penalties.speed_reduction_per_armor_point_percent", 1.0);
+        jumpPenaltyPerPointPct = c.getDouble("armor_penalties.jump_reduction_per_armor_point_percent", 1.0);
+        maxTotalReductionPct = c.getDouble("armor_penalties.max_total_reduction_percent", 60.0);
+        leatherCountsAsZero = c.getBoolean("armor_penalties.leather_counts_as_zero", true);
+        horseArmorPointMultiplier = c.getDouble("armor_penalties.horse_armor_point_multiplier", 1.0);
+
+        horseArmorPoints = new EnumMap<>(Material.class);
+        ConfigurationSection hap = c.getConfigurationSection("armor_penalties.horse_armor_points");
+        if (hap != null) {
+            for (String k : hap.getKeys(false)) {
+                Material m = Material.matchMaterial(k);
+                if (m != null) horseArmorPoints.put(m, hap.getInt(k));
+            }
+        }
+
+        envEnabled = c.getBoolean("environment_penalties.enabled", true);
+        environment = new EnvironmentTable(c, name, warnings);
+
+        traversalEnabled = c.getBoolean("traversal_rules.enabled", true);
+        cliffDropBlocks = c.getDouble("traversal_rules.cliff_drop_blocks", 2.5);
+        hazardScanDepth = c.getDouble("traversal_rules.hazard_scan_depth_blocks", 2.5);
+        hazardLava = c.getBoolean("traversal_rules.hazards.lava", true);
+        hazardMagma = c.getBoolean("traversal_rules.hazards.magma_block", true);
+        lookaheadTicks = Math.max(0.0, c.getDouble("traversal_rules.lookahead_ticks", 4.0));
+
+        waterEnabled = c.getBoolean("traversal_rules.water.enabled", true);
+        waterRefuseDepthAtLeast = c.getDouble(
+                "traversal_rules.water.refuse_if_depth_at_least_blocks",
+                2.0
+        );
+        waterAntiStuck = c.getBoolean("traversal_rules.water.anti_stuck_allow_if_all_neighbors_water", true);
+        traversal = new TraversalRules.Settings(cliffDropBlocks, hazardScanDepth, hazardLava, hazardMagma,
+                waterEnabled, waterRefuseDepthAtLeast, waterAntiStuck);
+
+        leadSinkEnabled = c.getBoolean("traversal_rules.water.sinking_on_lead.enabled", true);
+        leadSinkStartHorseArmorPoints = c.getInt("traversal_rules.water.sinking_on_lead.start_sinking_at_horse_armor_points", 7);
+        leadSinkDownVelocityPerTick = c.getDouble("traversal_rules.water.sinking_on_lead.down_velocity_per_tick", 0.08);
+    }
+
+    /** True if a stat refresh has anything to compute for mounts in this world. */
+    public boolean penaltiesEnabled() {
+        return armorEnabled || envEnabled;
+    }
+}
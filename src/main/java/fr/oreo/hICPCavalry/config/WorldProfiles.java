@@ -0,0 +1,107 @@
+package fr.oreo.hICPCavalry.config;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * Gives every loaded world a small id and compiles its {@link WorldProfile} into an array slot.
+ *
+ * Callers that see the same world repeatedly (mount sessions) keep the id and resolve with
+ * {@link #get(int)}, a single array load. {@link #of(World)} compares world references only,
+ * never names. Ids are never reused while the plugin runs. Main thread only.
+ */
+public final class WorldProfiles implements Listener {
+
+    private final Logger logger;
+    private final CavalryConfig cfg;
+
+    private World[] worlds = new World[8];
+    private WorldProfile[] profiles = new WorldProfile[8];
+    private int size;
+
+    // Last resolved world, most lookups in a row come from the same one
+    private World lastWorld;
+    private int lastId = -1;
+
+    public WorldProfiles(Plugin plugin, CavalryConfig cfg) {
+        this.logger = plugin.getLogger();
+        this.cfg = cfg;
+    }
+
+    public void start() {
+        for (World w : Bukkit.getWorlds()) {
+            idOf(w);
+        }
+    }
+
+    public WorldProfile get(int id) {
+        return profiles[id];
+    }
+
+    public WorldProfile of(World w) {
+        return profiles[idOf(w)];
+    }
+
+    /**
+     * @return the world's id, registering it on first sight
+     */
+    public int idOf(World w) {
+        if (w == lastWorld) return lastId;
+
+        for (int i = 0; i < size; i++) {
+            if (worlds[i] == w) {
+                lastWorld = w;
+                lastId = i;
+                return i;
+            }
+        }
+        return register(w);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent e) {
+        idOf(e.getWorld());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent e) {
+        World w = e.getWorld();
+        for (int i = 0; i < size; i++) {
+            // Keep the slot so ids held elsewhere stay valid; only drop the world reference
+            if (worlds[i] == w) worlds[i] = null;
+        }
+        if (lastWorld == w) {
+            lastWorld = null;
+            lastId = -1;
+        }
+    }
+
+    private int register(World w) {
+        if (size == worlds.length) {
+            worlds = Arrays.copyOf(worlds, size * 2);
+            profiles = Arrays.copyOf(profiles, size * 2);
+        }
+
+        WorldProfile profile = cfg.worldProfiles.getOrDefault(w.getName().toLowerCase(Locale.ROOT), cfg.defaults);
+        int id = size++;
+        worlds[id] = w;
+        profiles[id] = profile;
+        lastWorld = w;
+        lastId = id;
+
+        if (cfg.debugEnabled && profile != cfg.defaults) {
+            logger.info("[Debug] World " + w.getName() + " uses its own cavalry profile (id " + id + ")");
+        }
+        return id;
+    }
+}
@@ -0,0 +1,24 @@
+package fr.oreo.hICPCavalry.core;
+
+/**
+ * The little the rules need to know about a block, as one of the {@code KIND_*} constants.
+ */
+public interface BlockAccess {
+
+    /** Passable and harmless (air, grass, flowers, ...). */
+    byte KIND_PASSABLE = 0;
+    /** Something to stand on. */
+    byte KIND_SOLID = 1;
+    byte KIND_WATER = 2;
+    byte KIND_LAVA = 3;
+    /** Solid, but hurts. */
+    byte KIND_MAGMA = 4;
+    /** Not available without loading it (unloaded chunk); rules hold instead of guessing. */
+    byte KIND_UNKNOWN = 5;
+
+    byte kind(int x, int y, int z);
+
+    static boolean isGround(byte kind) {
+        return kind == KIND_SOLID || kind == KIND_MAGMA;
+    }
+}
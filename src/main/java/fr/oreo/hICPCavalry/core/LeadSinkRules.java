@@ -0,0 +1,28 @@
+package fr.oreo.hICPCavalry.core;
+
+/**
+ * When a leashed, unridden horse in water is pulled down by the weight of its armor.
+ */
+public final class LeadSinkRules {
+
+    private LeadSinkRules() {}
+
+    /**
+     * @param feetKind  block kind at the horse's feet
+     * @param belowKind block kind under that
+     */
+    public static boolean inWater(byte feetKind, byte belowKind) {
+        return feetKind == BlockAccess.KIND_WATER || belowKind == BlockAccess.KIND_WATER;
+    }
+
+    public static boolean heavyEnough(int horseArmorPts, int startPts) {
+        return horseArmorPts >= startPts;
+    }
+
+    /**
+     * New vertical velocity: at least {@code downPerTick} downwards, never slowing a faster fall.
+     */
+    public static double sinkVelocityY(double vy, double downPerTick) {
+        return Math.min(vy, -Math.abs(downPerTick));
+    }
+}
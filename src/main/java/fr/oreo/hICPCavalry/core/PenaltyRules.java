@@ -0,0 +1,46 @@
+package fr.oreo.hICPCavalry.core;
+
+/**
+ * Armor and environment penalty math of a stat refresh.
+ */
+public final class PenaltyRules {
+
+    /** Jump strength never goes below this, so a penalized mount can still hop a block. */
+    public static final double MIN_JUMP = 0.05;
+
+    private PenaltyRules() {}
+
+    /**
+     * Total reduction in percent, capped at {@code maxPct}.
+     *
+     * @param mountPtsMultiplier weight of mount armor points against rider armor points
+     * @param perPointPct        reduction per weighted armor point
+     * @param envPct             environment modifiers (negative values are bonuses)
+     */
+    public static double reductionPct(boolean armorEnabled, int riderPts, int mountPts, double mountPtsMultiplier,
+                                      double perPointPct, boolean envEnabled, double envPct, double maxPct) {
+        double pct = 0.0;
+        if (armorEnabled) pct += (riderPts + mountPts * mountPtsMultiplier) * perPointPct;
+        if (envEnabled) pct += envPct;
+        return Math.min(pct, maxPct);
+    }
+
+    public static double multiplier(double reductionPct) {
+        return Math.max(0.0, 1.0 - (reductionPct / 100.0));
+    }
+
+    public static double finalSpeed(double base, double mult, double clampMin, double clampMax) {
+        return Math.max(clampMin, Math.min(clampMax, base * mult));
+    }
+
+    public static double finalJump(double base, double mult) {
+        return Math.max(MIN_JUMP, base * mult);
+    }
+
+    /**
+     * Amount of a MULTIPLY_SCALAR_1 modifier turning {@code base} into {@code target}.
+     */
+    public static double modifierAmount(double base, double target) {
+        return base > 0 ? target / base - 1.0 : 0.0;
+    }
+}
@@ -0,0 +1,13 @@
+package fr.oreo.hICPCavalry.core;
+
+/**
+ * Outcome of a {@link TraversalRules#sweep}.
+ */
+public enum TraversalResult {
+    PASS,
+    WATER,
+    CLIFF,
+    HAZARD,
+    /** A cell ahead is not available (unloaded chunk); hold the move rather than refuse it. */
+    HOLD
+}
@@ -0,0 +1,147 @@
+package fr.oreo.hICPCavalry.core;
+
+/**
+ * Decides whether a mounted move may go on: refuses deep water, cliffs and hazards along the
+ * move. Cells the {@link BlockAccess} cannot see hold the move. One instance per thread; it
+ * keeps the block count of its last sweep.
+ */
+public final class TraversalRules {
+
+    /** Upper bound on cells per sweep, for teleport-sized moves. */
+    public static final int MAX_SWEEP_CELLS = 24;
+
+    /**
+     * Per-world traversal settings.
+     *
+     * @param cliffDropBlocks  highest drop a mount walks off; 0 disables cliff checks
+     * @param hazardScanDepth  how deep below a cell lava/magma are looked for; 0 disables
+     * @param waterRefuseDepth water at least this deep is refused
+     * @param waterAntiStuck   allow water if the mount already stands in it
+     */
+    public record Settings(
+            double cliffDropBlocks,
+            double hazardScanDepth,
+            boolean hazardLava,
+            boolean hazardMagma,
+            boolean waterEnabled,
+            double waterRefuseDepth,
+            boolean waterAntiStuck
+    ) {}
+
+    private int scanned;
+
+    /** Blocks looked at by the last {@link #sweep}. */
+    public int scanned() {
+        return scanned;
+    }
+
+    /**
+     * Grid walk (DDA) over the block cells crossed by the segment (x0,z0)-(x1,z1), the starting
+     * cell excluded since the mount already stands there. Each cell is visited once, in order
+     * along the segment, and the walk stops at the first one that refuses the move.
+     *
+     * @param mx mount block x
+     * @param my mount block y (its feet cell is {@code my - 1})
+     * @param mz mount block z
+     */
+    public TraversalResult sweep(BlockAccess blocks, Settings s, double x0, double z0, double x1, double z1,
+                                  int mx, int my, int mz) {
+        scanned = 0;
+        int feetY = my - 1;
+
+        int cx = floor(x0);
+        int cz = floor(z0);
+        int endCx = floor(x1);
+        int endCz = floor(z1);
+
+        double dx = x1 - x0;
+        double dz = z1 - z0;
+        int stepX = dx > 0 ? 1 : -1;
+        int stepZ = dz > 0 ? 1 : -1;
+        // Segment fraction needed to cross one cell, and to reach the first cell border
+        double tDeltaX = dx == 0 ? Double.POSITIVE_INFINITY : Math.abs(1.0 / dx);
+        double tDeltaZ = dz == 0 ? Double.POSITIVE_INFINITY : Math.abs(1.0 / dz);
+        double tMaxX = dx == 0 ? Double.POSITIVE_INFINITY : (dx > 0 ? cx + 1 - x0 : x0 - cx) * tDeltaX;
+        double tMaxZ = dz == 0 ? Double.POSITIVE_INFINITY : (dz > 0 ? cz + 1 - z0 : z0 - cz) * tDeltaZ;
+
+        for (int n = 0; n < MAX_SWEEP_CELLS && (cx != endCx || cz != endCz); n++) {
+            if (tMaxX < tMaxZ) {
+                cx += stepX;
+                tMaxX += tDeltaX;
+            } else {
+                cz += stepZ;
+                tMaxZ += tDeltaZ;
+            }
+
+            TraversalResult verdict = checkCell(blocks, s, cx, feetY, cz, mx, my, mz);
+            if (verdict != TraversalResult.PASS) return verdict;
+        }
+        return TraversalResult.PASS;
+    }
+
+    private TraversalResult checkCell(BlockAccess blocks, Settings s, int x, int y, int z, int mx, int my, int mz) {
+        byte feet = blocks.kind(x, y, z);
+        scanned++;
+        // Scans below stay in this column, so they are loaded whenever the feet cell is
+        if (feet == BlockAccess.KIND_UNKNOWN) return TraversalResult.HOLD;
+
+        if (s.waterEnabled() && feet == BlockAccess.KIND_WATER && refuseWater(blocks, s, x, y, z, mx, my, mz)) {
+            return TraversalResult.WATER;
+        }
+        if (s.cliffDropBlocks() > 0 && isCliffDrop(blocks, feet, x, y, z, s.cliffDropBlocks())) {
+            return TraversalResult.CLIFF;
+        }
+        if (s.hazardScanDepth() > 0 && (s.hazardLava() || s.hazardMagma()) && hazardBelow(blocks, s, feet, x, y, z)) {
+            return TraversalResult.HAZARD;
+        }
+        return TraversalResult.PASS;
+    }
+
+    private boolean refuseWater(BlockAccess blocks, Settings s, int x, int y, int z, int mx, int my, int mz) {
+        double depthN = Math.max(0.5, s.waterRefuseDepth());
+
+        int depth = 0;
+        for (int i = 0; i < depthN; i++) {
+            scanned++;
+            if (blocks.kind(x, y - i, z) != BlockAccess.KIND_WATER) break;
+            depth++;
+        }
+        if (depth < depthN) return false;
+
+        if (s.waterAntiStuck()) {
+            // Already swimming: let it go on rather than trap it
+            scanned++;
+            return blocks.kind(mx, my - 1, mz) != BlockAccess.KIND_WATER;
+        }
+        return true;
+    }
+
+    private boolean isCliffDrop(BlockAccess blocks, byte feet, int x, int y, int z, double dropLimit) {
+        if (BlockAccess.isGround(feet)) return false;
+
+        int maxScan = (int) Math.ceil(dropLimit + 3.0);
+        int drop = 0;
+        for (int i = 1; i <= maxScan; i++) {
+            scanned++;
+            if (BlockAccess.isGround(blocks.kind(x, y - i, z))) break;
+            drop++;
+        }
+        return drop > dropLimit;
+    }
+
+    private boolean hazardBelow(BlockAccess blocks, Settings s, byte feet, int x, int y, int z) {
+        int scan = (int) Math.ceil(s.hazardScanDepth());
+        for (int i = 0; i <= scan; i++) {
+            byte kind = i == 0 ? feet : blocks.kind(x, y - i, z);
+            scanned++;
+            if (s.hazardLava() && kind == BlockAccess.KIND_LAVA) return true;
+            if (s.hazardMagma() && kind == BlockAccess.KIND_MAGMA) return true;
+        }
+        return false;
+    }
+
+    private static int floor(double v) {
+        int i = (int) v;
+        return v < i ? i - 1 : i;
+    }
+}
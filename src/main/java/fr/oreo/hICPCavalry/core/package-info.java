@@ -0,0 +1,10 @@
+/**
+ * Server-independent cavalry rules: penalty math, traversal sweeps and lead sinking.
+ *
+ * Nothing in this package may import Bukkit or Paper types, or other packages of the plugin
+ * (the {@code api} package adapts {@link fr.oreo.hICPCavalry.core.TraversalResult} instead).
+ * Inputs are primitives and {@link fr.oreo.hICPCavalry.core.BlockAccess}, so the rules can be
+ * driven by tests, benchmarks, simulations or another server adapter. The Paper side (listeners and services) reads
+ * the world, calls into these classes and applies the results.
+ */
+package fr.oreo.hICPCavalry.core;
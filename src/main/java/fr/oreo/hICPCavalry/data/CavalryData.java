@@ -0,0 +1,102 @@
+package fr.oreo.hICPCavalry.data;
+
+import fr.oreo.hICPCavalry.keys.Keys;
+import org.bukkit.entity.Entity;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+
+/**
+ * Reads and writes the {@link CavalryRecord} of an entity: one PDC lookup per entity.
+ * Entities still carrying the old per-field keys are migrated on first read.
+ */
+public final class CavalryData {
+
+    private final Keys keys;
+
+    public CavalryData(Keys keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * @return the entity's record, or a new empty one (not yet written) if it has none
+     */
+    public CavalryRecord read(Entity e) {
+        PersistentDataContainer pdc = e.getPersistentDataContainer();
+        CavalryRecord r = pdc.get(keys.CAVALRY, CavalryRecordType.INSTANCE);
+        if (r != null) return r;
+
+        r = new CavalryRecord();
+        if (migrateLegacy(pdc, r)) write(e, r);
+        return r;
+    }
+
+    /**
+     * Writes the record back if it changed. Empty records remove the key entirely.
+     */
+    public void write(Entity e, CavalryRecord r) {
+        if (!r.isDirty()) return;
+
+        PersistentDataContainer pdc = e.getPersistentDataContainer();
+        if (r.isEmpty()) {
+            pdc.remove(keys.CAVALRY);
+        } else {
+            pdc.set(keys.CAVALRY, CavalryRecordType.INSTANCE, r);
+        }
+        r.markClean();
+    }
+
+    /**
+     * The entity's record in its stored binary form, for copying it to a respawned entity.
+     *
+     * @return encoded record, or null if the entity has none
+     */
+    public byte[] readRaw(Entity e) {
+        CavalryRecord r = read(e);
+        return r.isEmpty() ? null : r.encode();
+    }
+
+    /**
+     * Stores a record previously returned by {@link #readRaw}. Null removes the record.
+     */
+    public void writeRaw(Entity e, byte[] raw) {
+        PersistentDataContainer pdc = e.getPersistentDataContainer();
+        if (raw == null) pdc.remove(keys.CAVALRY);
+        else pdc.set(keys.CAVALRY, PersistentDataType.BYTE_ARRAY, raw);
+    }
+
+    private boolean migrateLegacy(PersistentDataContainer pdc, CavalryRecord r) {
+        boolean found = false;
+
+        if (pdc.has(keys.BASE_SPEED, PersistentDataType.DOUBLE)) {
+            Double v = pdc.get(keys.BASE_SPEED, PersistentDataType.DOUBLE);
+            if (v != null) r.setBaseSpeed(v);
+            pdc.remove(keys.BASE_SPEED);
+            found = true;
+        }
+
+        if (pdc.has(keys.BASE_JUMP, PersistentDataType.DOUBLE)) {
+            Double v = pdc.get(keys.BASE_JUMP, PersistentDataType.DOUBLE);
+            if (v != null) r.setBaseJump(v);
+            pdc.remove(keys.BASE_JUMP);
+            found = true;
+        }
+
+        // INTEGER = config stamp; the original BYTE flag carries no stamp and stays "stale"
+        if (pdc.has(keys.HORSE_NORMALIZED, PersistentDataType.INTEGER)) {
+            Integer stamp = pdc.get(keys.HORSE_NORMALIZED, PersistentDataType.INTEGER);
+            if (stamp != null) r.setNormalizationStamp(stamp);
+        }
+        if (pdc.has(keys.HORSE_NORMALIZED)) {
+            pdc.remove(keys.HORSE_NORMALIZED);
+            found = true;
+        }
+
+        if (pdc.has(keys.LEASH_SINK)) {
+            r.setLeashSink(true);
+            pdc.remove(keys.LEASH_SINK);
+            found = true;
+        }
+
+        return found;
+    }
+}
@@ -0,0 +1,223 @@
+package fr.oreo.hICPCavalry.data;
+
+import java.util.UUID;
+
+/**
+ * All per-entity cavalry data, stored as one binary blob under {@code Keys.CAVALRY}.
+ *
+ * Layout (version 2, big endian, 38 bytes):
+ * <pre>
+ *  0  version    byte
+ *  1  flags      byte   (FLAG_*)
+ *  2  stamp      int    normalization stamp, valid with FLAG_NORMALIZED
+ *  6  baseSpeed  double valid with FLAG_BASE_SPEED
+ * 14  baseJump   double valid with FLAG_BASE_JUMP
+ * 22  seed       uuid   (2 longs, since version 2) valid with FLAG_SEED
+ * </pre>
+ * New fields are appended in later versions; older readers ignore trailing bytes.
+ * New flags reuse free bits of the flags byte.
+ * The blob is only decoded when a field is first read.
+ */
+public final class CavalryRecord {
+
+    public static final byte VERSION = 2;
+    static final int V1_SIZE = 22;
+    static final int V2_SIZE = 38;
+
+    private static final int FLAG_NORMALIZED = 1;
+    private static final int FLAG_BASE_SPEED = 1 << 1;
+    private static final int FLAG_BASE_JUMP = 1 << 2;
+    private static final int FLAG_LEASH_SINK = 1 << 3;
+    private static final int FLAG_AI_THROTTLED = 1 << 4;
+    private static final int FLAG_SEED = 1 << 5;
+
+    private byte[] raw;
+    private boolean dirty;
+
+    private int flags;
+    private int stamp;
+    private double baseSpeed;
+    private double baseJump;
+    private long seedMost;
+    private long seedLeast;
+
+    public CavalryRecord() {}
+
+    CavalryRecord(byte[] raw) {
+        this.raw = raw;
+    }
+
+    public boolean isNormalized() {
+        decode();
+        return (flags & FLAG_NORMALIZED) != 0;
+    }
+
+    public int normalizationStamp() {
+        decode();
+        return stamp;
+    }
+
+    public void setNormalizationStamp(int stamp) {
+        decode();
+        this.stamp = stamp;
+        setFlag(FLAG_NORMALIZED, true);
+    }
+
+    public boolean hasBaseSpeed() {
+        decode();
+        return (flags & FLAG_BASE_SPEED) != 0;
+    }
+
+    /** @return stored base speed, or -1 if none */
+    public double baseSpeed() {
+        decode();
+        return (flags & FLAG_BASE_SPEED) != 0 ? baseSpeed : -1;
+    }
+
+    public void setBaseSpeed(double v) {
+        decode();
+        baseSpeed = v;
+        setFlag(FLAG_BASE_SPEED, true);
+    }
+
+    public boolean hasBaseJump() {
+        decode();
+        return (flags & FLAG_BASE_JUMP) != 0;
+    }
+
+    /** @return stored base jump strength, or -1 if none */
+    public double baseJump() {
+        decode();
+        return (flags & FLAG_BASE_JUMP) != 0 ? baseJump : -1;
+    }
+
+    public void setBaseJump(double v) {
+        decode();
+        baseJump = v;
+        setFlag(FLAG_BASE_JUMP, true);
+    }
+
+    public void clearBaseStats() {
+        decode();
+        if ((flags & (FLAG_BASE_SPEED | FLAG_BASE_JUMP)) == 0) return;
+        setFlag(FLAG_BASE_SPEED, false);
+        setFlag(FLAG_BASE_JUMP, false);
+        baseSpeed = 0;
+        baseJump = 0;
+    }
+
+    public boolean isLeashSink() {
+        decode();
+        return (flags & FLAG_LEASH_SINK) != 0;
+    }
+
+    public void setLeashSink(boolean v) {
+        decode();
+        if (((flags & FLAG_LEASH_SINK) != 0) == v) return;
+        setFlag(FLAG_LEASH_SINK, v);
+    }
+
+    /** True while the idle mount manager has switched this mount's AI off. */
+    public boolean isAiThrottled() {
+        decode();
+        return (flags & FLAG_AI_THROTTLED) != 0;
+    }
+
+    public void setAiThrottled(boolean v) {
+        decode();
+        if (((flags & FLAG_AI_THROTTLED) != 0) == v) return;
+        setFlag(FLAG_AI_THROTTLED, v);
+    }
+
+    /**
+     * The id seeded base stats are derived from. A horse taken out of a stable is a new entity,
+     * so it keeps the id it was first seeded with.
+     *
+     * @return the stored seed id, or {@code own} if none
+     */
+    public UUID seedOr(UUID own) {
+        decode();
+        return (flags & FLAG_SEED) != 0 ? new UUID(seedMost, seedLeast) : own;
+    }
+
+    public void setSeed(UUID id) {
+        decode();
+        seedMost = id.getMostSignificantBits();
+        seedLeast = id.getLeastSignificantBits();
+        setFlag(FLAG_SEED, true);
+    }
+
+    /** True if a setter changed something since this record was read or created. */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /** True if nothing is set, so the key can be removed instead of written. */
+    public boolean isEmpty() {
+        decode();
+        return flags == 0;
+    }
+
+    private void setFlag(int flag, boolean on) {
+        flags = on ? (flags | flag) : (flags & ~flag);
+        dirty = true;
+    }
+
+    private void decode() {
+        byte[] b = raw;
+        if (b == null) return;
+        raw = null;
+
+        // Unknown or truncated blob: start over rather than trust garbage
+        if (b.length < V1_SIZE || b[0] < 1) return;
+
+        flags = b[1] & 0xFF;
+        stamp = readInt(b, 2);
+        baseSpeed = Double.longBitsToDouble(readLong(b, 6));
+        baseJump = Double.longBitsToDouble(readLong(b, 14));
+        if (b[0] >= 2 && b.length >= V2_SIZE) {
+            seedMost = readLong(b, 22);
+            seedLeast = readLong(b, 30);
+        } else {
+            // Rewritten by a version 1 reader, which kept the flag but not the id
+            flags &= ~FLAG_SEED;
+        }
+    }
+
+    byte[] encode() {
+        decode();
+        byte[] b = new byte[V2_SIZE];
+        b[0] = VERSION;
+        b[1] = (byte) flags;
+        writeInt(b, 2, stamp);
+        writeLong(b, 6, Double.doubleToRawLongBits(baseSpeed));
+        writeLong(b, 14, Double.doubleToRawLongBits(baseJump));
+        writeLong(b, 22, seedMost);
+        writeLong(b, 30, seedLeast);
+        return b;
+    }
+
+    void markClean() {
+        dirty = false;
+    }
+
+    private static int readInt(byte[] b, int o) {
+        return ((b[o] & 0xFF) << 24) | ((b[o + 1] & 0xFF) << 16) | ((b[o + 2] & 0xFF) << 8) | (b[o + 3] & 0xFF);
+    }
+
+    private static long readLong(byte[] b, int o) {
+        return ((long) readInt(b, o) << 32) | (readInt(b, o + 4) & 0xFFFFFFFFL);
+    }
+
+    private static void writeInt(byte[] b, int o, int v) {
+        b[o] = (byte) (v >>> 24);
+        b[o + 1] = (byte) (v >>> 16);
+        b[o + 2] = (byte) (v >>> 8);
+        b[o + 3] = (byte) v;
+    }
+
+    private static void writeLong(byte[] b, int o, long v) {
+        writeInt(b, o, (int) (v >>> 32));
+        writeInt(b, o + 4, (int) v);
+    }
+}
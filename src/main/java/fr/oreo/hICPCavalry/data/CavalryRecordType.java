@@ -0,0 +1,32 @@
+package fr.oreo.hICPCavalry.data;
+
+import org.bukkit.persistence.PersistentDataAdapterContext;
+import org.bukkit.persistence.PersistentDataType;
+
+public final class CavalryRecordType implements PersistentDataType<byte[], CavalryRecord> {
+
+    public static final CavalryRecordType INSTANCE = new CavalryRecordType();
+
+    private CavalryRecordType() {}
+
+    @Override
+    public Class<byte[]> getPrimitiveType() {
+        return byte[].class;
+    }
+
+    @Override
+    public Class<CavalryRecord> getComplexType() {
+        return CavalryRecord.class;
+    }
+
+    @Override
+    public byte[] toPrimitive(CavalryRecord complex, PersistentDataAdapterContext context) {
+        return complex.encode();
+    }
+
+    @Override
+    public CavalryRecord fromPrimitive(byte[] primitive, PersistentDataAdapterContext context) {
+        // Decoding is deferred until a field is read
+        return new CavalryRecord(primitive);
+    }
+}
@@ -0,0 +1,22 @@
+package fr.oreo.hICPCavalry.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One LeashSinkingService tick.
+ */
+@Name("fr.oreo.hicpcavalry.LeashSinkTick")
+@Label("Cavalry Leash Sink Tick")
+@Category("HICP Cavalry")
+@StackTrace(false)
+public final class LeashSinkTickEvent extends jdk.jfr.Event {
+
+    @Label("Tracked Horses")
+    public int tracked;
+
+    @Label("Sinking Horses")
+    public int sinking;
+}
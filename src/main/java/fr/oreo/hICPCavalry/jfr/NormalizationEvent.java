@@ -0,0 +1,25 @@
+package fr.oreo.hICPCavalry.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Normalization of a single horse.
+ */
+@Name("fr.oreo.hicpcavalry.Normalization")
+@Label("Cavalry Horse Normalization")
+@Category("HICP Cavalry")
+@StackTrace(false)
+public final class NormalizationEvent extends jdk.jfr.Event {
+
+    @Label("Horse")
+    public String horse;
+
+    @Label("Config Stamp")
+    public int stamp;
+
+    @Label("Seeded Base Stats")
+    public boolean seeded;
+}
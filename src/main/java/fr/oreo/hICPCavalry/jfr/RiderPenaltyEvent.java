@@ -0,0 +1,34 @@
+package fr.oreo.hICPCavalry.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Penalty calculation for a single rider.
+ */
+@Name("fr.oreo.hicpcavalry.RiderPenalty")
+@Label("Cavalry Rider Penalty")
+@Category("HICP Cavalry")
+@StackTrace(false)
+public final class RiderPenaltyEvent extends jdk.jfr.Event {
+
+    @Label("Mount")
+    public String mount;
+
+    @Label("Player Armor Points")
+    public int playerPoints;
+
+    @Label("Mount Armor Points")
+    public int mountPoints;
+
+    @Label("Environment Penalty %")
+    public double environmentPct;
+
+    @Label("Speed Multiplier")
+    public double speedMultiplier;
+
+    @Label("Jump Multiplier")
+    public double jumpMultiplier;
+}
@@ -0,0 +1,28 @@
+package fr.oreo.hICPCavalry.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One MountStatService refresh pass (snapshot stage, plus compute when inline).
+ */
+@Name("fr.oreo.hicpcavalry.StatRefresh")
+@Label("Cavalry Stat Refresh")
+@Category("HICP Cavalry")
+@Description("Snapshot of all riders for one mount stat refresh")
+@StackTrace(false)
+public final class StatRefreshEvent extends jdk.jfr.Event {
+
+    @Label("Players")
+    public int players;
+
+    @Label("Riders")
+    public int riders;
+
+    @Label("Parallel")
+    @Description("Penalty math was handed to the compute pool")
+    public boolean parallel;
+}
@@ -0,0 +1,25 @@
+package fr.oreo.hICPCavalry.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One traversal check of a mounted move.
+ */
+@Name("fr.oreo.hicpcavalry.TraversalCheck")
+@Label("Cavalry Traversal Check")
+@Category("HICP Cavalry")
+@StackTrace(false)
+public final class TraversalCheckEvent extends jdk.jfr.Event {
+
+    @Label("Mount Type")
+    public String mountType;
+
+    @Label("Verdict")
+    public String verdict;
+
+    @Label("Blocks Scanned")
+    public int blocksScanned;
+}
@@ -0,0 +1,283 @@
+package fr.oreo.hICPCavalry.journal;
+
+import fr.oreo.hICPCavalry.config.CavalryConfig;
+import org.bukkit.plugin.Plugin;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+/**
+ * Append-only binary journal of cavalry events, written through memory-mapped segment files.
+ *
+ * Segment layout:
+ * <pre>
+ * header (16 bytes): magic int, version short, record size short, created millis long
+ * records (64 bytes each):
+ *   0 time millis long | 8 type byte | 9 detail byte | 10 reserved short
+ *  12 x int | 16 y int | 20 z int
+ *  24 mount uuid (2 longs) | 40 rider uuid (2 longs)
+ *  56 a float | 60 b float
+ * </pre>
+ * Unused space is zero, so a record with type 0 marks the end of a segment.
+ * Writes happen on the main thread only and do not allocate. The next segment is created and
+ * mapped ahead on a background thread, which also flushes, closes and prunes full segments,
+ * so rotation on the main thread only swaps buffers.
+ */
+public final class CavalryJournal {
+
+    public static final int MAGIC = 0x48434A31; // "HCJ1"
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 16;
+    public static final int RECORD_SIZE = 64;
+
+    static final String SEGMENT_PREFIX = "segment-";
+    static final String SEGMENT_SUFFIX = ".bin";
+
+    private final Logger logger;
+    private final CavalryConfig cfg;
+    private final Path dir;
+
+    /** Segment being written; main thread only. */
+    private Segment current;
+    /** Segment mapped ahead by the io thread, taken by the main thread on rotation. */
+    private final AtomicReference<Segment> spare = new AtomicReference<>();
+    private volatile boolean failed;
+    private ExecutorService io;
+    private boolean open;
+    private long dropped;
+
+    private static final class Segment {
+        final long seq;
+        final FileChannel channel;
+        final MappedByteBuffer buf;
+
+        Segment(long seq, FileChannel channel, MappedByteBuffer buf) {
+            this.seq = seq;
+            this.channel = channel;
+            this.buf = buf;
+        }
+    }
+
+    public CavalryJournal(Plugin plugin, CavalryConfig cfg) {
+        this.logger = plugin.getLogger();
+        this.cfg = cfg;
+        this.dir = plugin.getDataFolder().toPath().resolve("journal");
+    }
+
+    public void start() {
+        if (!cfg.journalEnabled) return;
+
+        try {
+            Files.createDirectories(dir);
+            current = openSegment(highestSegment() + 1);
+            // Every start opens a fresh segment, so restarts count against max_segments too
+            pruneOldSegments(current.seq);
+        } catch (IOException ex) {
+            logger.warning("Cavalry journal disabled, could not open " + dir + ": " + ex.getMessage());
+            if (current != null) closeQuietly(current);
+            current = null;
+            return;
+        }
+
+        failed = false;
+        dropped = 0;
+        io = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "HICP-Cavalry-Journal");
+            t.setDaemon(true);
+            return t;
+        });
+        prepare(current.seq + 1);
+        open = true;
+
+        if (cfg.debugEnabled) {
+            logger.info("[Debug] Cavalry journal writing to " + dir + " (segment " + current.seq + ")");
+        }
+    }
+
+    public void stop() {
+        if (io != null) {
+            io.shutdown();
+            try {
+                io.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            io = null;
+        }
+
+        if (current != null) {
+            current.buf.force();
+            closeQuietly(current);
+            current = null;
+        }
+        // Mapped ahead but never written to
+        Segment unused = spare.getAndSet(null);
+        if (unused != null) {
+            closeQuietly(unused);
+            try {
+                Files.deleteIfExists(dir.resolve(segmentName(unused.seq)));
+            } catch (IOException ignored) {
+            }
+        }
+
+        if (dropped > 0) {
+            logger.warning("Cavalry journal dropped " + dropped + " record(s) while the next segment was not ready");
+        }
+        open = false;
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    public void write(byte type, byte detail, int x, int y, int z, UUID mount, UUID rider, float a, float b) {
+        if (!open) return;
+        if (current.buf.remaining() < RECORD_SIZE && !rotate()) return;
+
+        MappedByteBuffer out = current.buf;
+        int o = out.position();
+
+        out.putLong(o, System.currentTimeMillis());
+        out.put(o + 9, detail);
+        out.putInt(o + 12, x);
+        out.putInt(o + 16, y);
+        out.putInt(o + 20, z);
+        out.putLong(o + 24, mount == null ? 0L : mount.getMostSignificantBits());
+        out.putLong(o + 32, mount == null ? 0L : mount.getLeastSignificantBits());
+        out.putLong(o + 40, rider == null ? 0L : rider.getMostSignificantBits());
+        out.putLong(o + 48, rider == null ? 0L : rider.getLeastSignificantBits());
+        out.putFloat(o + 56, a);
+        out.putFloat(o + 60, b);
+        // Type last: a half-written record still reads as end-of-segment
+        out.put(o + 8, type);
+
+        out.position(o + RECORD_SIZE);
+    }
+
+    /**
+     * Swaps to the segment mapped ahead; flushing and closing the full one, pruning and mapping
+     * the following one happen on the io thread.
+     *
+     * @return false when the record has to be dropped
+     */
+    private boolean rotate() {
+        if (failed) {
+            logger.warning("Cavalry journal disabled, segment rotation failed");
+            open = false;
+            return false;
+        }
+
+        Segment next = spare.getAndSet(null);
+        if (next == null) {
+            // Still being mapped; only under a burst that fills a whole segment meanwhile
+            dropped++;
+            return false;
+        }
+        // Created time is when the segment starts being used, not when it was mapped
+        next.buf.putLong(8, System.currentTimeMillis());
+
+        Segment full = current;
+        current = next;
+        io.execute(() -> {
+            full.buf.force();
+            closeQuietly(full);
+            try {
+                pruneOldSegments(next.seq);
+            } catch (IOException ex) {
+                logger.warning("Could not prune cavalry journal segments: " + ex.getMessage());
+            }
+        });
+        prepare(next.seq + 1);
+        return true;
+    }
+
+    private void prepare(long seq) {
+        io.execute(() -> {
+            try {
+                spare.set(openSegment(seq));
+            } catch (IOException ex) {
+                logger.warning("Could not map cavalry journal segment " + seq + ": " + ex.getMessage());
+                failed = true;
+            }
+        });
+    }
+
+    private Segment openSegment(long seq) throws IOException {
+        int records = Math.max(1, (cfg.journalSegmentSizeMb * 1024 * 1024 - HEADER_SIZE) / RECORD_SIZE);
+        long size = HEADER_SIZE + (long) records * RECORD_SIZE;
+
+        Path file = dir.resolve(segmentName(seq));
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buf;
+        try {
+            buf = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException ex) {
+            channel.close();
+            throw ex;
+        }
+
+        buf.putInt(MAGIC);
+        buf.putShort(VERSION);
+        buf.putShort((short) RECORD_SIZE);
+        buf.putLong(System.currentTimeMillis());
+        return new Segment(seq, channel, buf);
+    }
+
+    /**
+     * Deletes the oldest segments up to {@code upTo}; a segment mapped ahead does not count yet.
+     */
+    private void pruneOldSegments(long upTo) throws IOException {
+        List<Long> seqs = listSegments();
+        int live = 0;
+        while (live < seqs.size() && seqs.get(live) <= upTo) live++;
+        int excess = live - Math.max(1, cfg.journalMaxSegments);
+        for (int i = 0; i < excess; i++) {
+            Files.deleteIfExists(dir.resolve(segmentName(seqs.get(i))));
+        }
+    }
+
+    private long highestSegment() throws IOException {
+        List<Long> seqs = listSegments();
+        return seqs.isEmpty() ? 0 : seqs.get(seqs.size() - 1);
+    }
+
+    private List<Long> listSegments() throws IOException {
+        List<Long> seqs = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path p : ds) {
+                String n = p.getFileName().toString();
+                try {
+                    seqs.add(Long.parseLong(n.substring(SEGMENT_PREFIX.length(), n.length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException ignored) {
+                    // not one of ours
+                }
+            }
+        }
+        seqs.sort(null);
+        return seqs;
+    }
+
+    private static void closeQuietly(Segment s) {
+        try {
+            s.channel.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    static String segmentName(long seq) {
+        return SEGMENT_PREFIX + String.format("%08d", seq) + SEGMENT_SUFFIX;
+    }
+}
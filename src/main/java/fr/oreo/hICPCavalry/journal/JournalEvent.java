@@ -0,0 +1,40 @@
+package fr.oreo.hICPCavalry.journal;
+
+/**
+ * Event type codes stored in byte 8 of each journal record.
+ * Codes are part of the file format: never renumber, only append.
+ */
+public final class JournalEvent {
+
+    public static final byte MOUNT = 1;
+    public static final byte DISMOUNT = 2;
+    public static final byte BLOCK_CLIFF = 3;
+    public static final byte BLOCK_WATER = 4;
+    public static final byte BLOCK_HAZARD = 5;
+    /** a = speed multiplier, b = jump multiplier */
+    public static final byte PENALTY_CHANGE = 6;
+    /** a = applied y velocity, b = horse armor points */
+    public static final byte LEASH_SINK = 7;
+    /** a = measured mean speed (bps), b = expected maximum (bps) */
+    public static final byte SPEED_ANOMALY = 8;
+
+    /** Detail byte: kind of mount involved. */
+    public static final byte MOUNT_HORSE = 0;
+    public static final byte MOUNT_CAMEL = 1;
+
+    private JournalEvent() {}
+
+    public static String name(byte type) {
+        return switch (type) {
+            case MOUNT -> "MOUNT";
+            case DISMOUNT -> "DISMOUNT";
+            case BLOCK_CLIFF -> "BLOCK_CLIFF";
+            case BLOCK_WATER -> "BLOCK_WATER";
+            case BLOCK_HAZARD -> "BLOCK_HAZARD";
+            case PENALTY_CHANGE -> "PENALTY_CHANGE";
+            case LEASH_SINK -> "LEASH_SINK";
+            case SPEED_ANOMALY -> "SPEED_ANOMALY";
+            default -> "UNKNOWN_" + type;
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package fr.oreo.hICPCavalry.journal;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Offline converter for journal segments. Runs without a server:
+ * <pre>
+ * java -cp HICP_Cavalry.jar fr.oreo.hICPCavalry.journal.JournalReader [--json] plugins/HICP_Cavalry/journal/segment-*.bin
+ * </pre>
+ * Writes CSV (default) or JSON lines to stdout.
+ */
+public final class JournalReader {
+
+    private JournalReader() {}
+
+    public static void main(String[] args) throws IOException {
+        boolean json = false;
+        List<Path> files = new ArrayList<>();
+        for (String a : args) {
+            if (a.equals("--json")) json = true;
+            else if (a.equals("--csv")) json = false;
+            else files.add(Path.of(a));
+        }
+
+        if (files.isEmpty()) {
+            System.err.println("Usage: JournalReader [--csv|--json] <segment files...>");
+            System.exit(1);
+        }
+
+        PrintStream out = System.out;
+        if (!json) out.println("time,type,detail,x,y,z,mount,rider,a,b");
+
+        files.sort(null);
+        for (Path f : files) {
+            dump(f, json, out);
+        }
+        out.flush();
+    }
+
+    private static void dump(Path file, boolean json, PrintStream out) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer b = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+
+            if (b.remaining() < CavalryJournal.HEADER_SIZE || b.getInt(0) != CavalryJournal.MAGIC) {
+                System.err.println("Skipping " + file + ": not a cavalry journal segment");
+                return;
+            }
+            int recordSize = b.getShort(6);
+            if (recordSize != CavalryJournal.RECORD_SIZE) {
+                System.err.println("Skipping " + file + ": unsupported record size " + recordSize);
+                return;
+            }
+
+            for (int o = CavalryJournal.HEADER_SIZE; o + recordSize <= b.limit(); o += recordSize) {
+                byte type = b.get(o + 8);
+                if (type == 0) break;
+
+                String time = Instant.ofEpochMilli(b.getLong(o)).toString();
+                byte detail = b.get(o + 9);
+                int x = b.getInt(o + 12);
+                int y = b.getInt(o + 16);
+                int z = b.getInt(o + 20);
+                String mount = uuid(b.getLong(o + 24), b.getLong(o + 32));
+                String rider = uuid(b.getLong(o + 40), b.getLong(o + 48));
+                float va = b.getFloat(o + 56);
+                float vb = b.getFloat(o + 60);
+
+                if (json) {
+                    out.println("{\"time\":\"" + time + "\",\"type\":\"" + JournalEvent.name(type) + "\",\"detail\":" + detail +
+                            ",\"x\":" + x + ",\"y\":" + y + ",\"z\":" + z +
+                            ",\"mount\":" + quote(mount) + ",\"rider\":" + quote(rider) +
+                            ",\"a\":" + va + ",\"b\":" + vb + "}");
+                } else {
+                    out.println(time + "," + JournalEvent.name(type) + "," + detail + "," + x + "," + y + "," + z + "," +
+                            mount + "," + rider + "," + va + "," + vb);
+                }
+            }
+        }
+    }
+
+    private static String uuid(long most, long least) {
+        if (most == 0L && least == 0L) return "";
+        return new UUID(most, least).toString();
+    }
+
+    private static String quote(String s) {
+        return s.isEmpty() ? "null" : "\"" + s + "\"";
+    }
+}
@@ -4,13 +4,23 @@ import org.bukkit.NamespacedKey;
 import org.bukkit.plugin.Plugin;
 
 public final class Keys {
+    /** Single versioned record holding all per-entity cavalry data (see CavalryRecord). */
+    public final NamespacedKey CAVALRY;
+    /** Integer armor weight set on custom armor items (item PDC), see ArmorWeights. */
+    public final NamespacedKey ARMOR_WEIGHT;
+
+    // Legacy per-field keys, only read to migrate entities into CAVALRY
     public final NamespacedKey BASE_SPEED;
     public final NamespacedKey BASE_JUMP;
     public final NamespacedKey HORSE_NORMALIZED;
+    public final NamespacedKey LEASH_SINK;
 
     public Keys(Plugin plugin) {
+        CAVALRY = new NamespacedKey(plugin, "cavalry");
+        ARMOR_WEIGHT = new NamespacedKey(plugin, "armor_weight");
         BASE_SPEED = new NamespacedKey(plugin, "base_speed");
         BASE_JUMP = new NamespacedKey(plugin, "base_jump");
         HORSE_NORMALIZED = new NamespacedKey(plugin, "horse_normalized");
+        LEASH_SINK = new NamespacedKey(plugin, "leash_sink");
     }
 }
@@ -1,13 +1,21 @@
 package fr.oreo.hICPCavalry.listener;
 
 import fr.oreo.hICPCavalry.config.CavalryConfig;
+import fr.oreo.hICPCavalry.journal.CavalryJournal;
+import fr.oreo.hICPCavalry.journal.JournalEvent;
+import fr.oreo.hICPCavalry.registry.MountRegistry;
 import fr.oreo.hICPCavalry.service.MountStatService;
+import fr.oreo.hICPCavalry.util.EntityUtil;
+import org.bukkit.Location;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Horse;
+import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.vehicle.VehicleEnterEvent;
+import org.bukkit.event.vehicle.VehicleExitEvent;
 import org.bukkit.plugin.Plugin;
 
 import java.util.logging.Logger;
@@ -18,25 +26,59 @@ public final class MountListener implements Listener {
     private final Logger logger;
     private final CavalryConfig cfg;
     private final MountStatService statService;
+    private final CavalryJournal journal;
+    private final MountRegistry registry;
 
-    public MountListener(Plugin plugin, CavalryConfig cfg, MountStatService statService) {
+    public MountListener(Plugin plugin, CavalryConfig cfg, MountStatService statService, CavalryJournal journal, MountRegistry registry) {
         this.plugin = plugin;
         this.logger = plugin.getLogger();
         this.cfg = cfg;
         this.statService = statService;
+        this.journal = journal;
+        this.registry = registry;
     }
 
-    @EventHandler
+    /**
+     * Runs once the mount is final, so a cancelled attempt never touches the mount's attributes or data.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onEnter(VehicleEnterEvent e) {
         if (!(e.getEntered() instanceof Player player)) return;
 
         Entity v = e.getVehicle();
+        if (v instanceof LivingEntity le && (EntityUtil.isHorse(v) || EntityUtil.isCamel(v))) {
+            statService.restoreLegacyBase(le);
+        }
+
         if (v instanceof Horse h && cfg.horsesEnabled) {
             if (cfg.debugEnabled && cfg.debugHorseNormalization) {
                 logger.info("[Debug] Player " + player.getName() + " mounting horse " + h.getUniqueId());
             }
 
-            statService.normalizeHorseOnSpawn(h);
+            statService.normalizeHorseIfStale(h);
         }
+
+        record(JournalEvent.MOUNT, v, player);
+        registry.update(v);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onExit(VehicleExitEvent e) {
+        if (!(e.getExited() instanceof Player player)) return;
+        statService.endSession(e.getVehicle());
+        record(JournalEvent.DISMOUNT, e.getVehicle(), player);
+    }
+
+    private void record(byte type, Entity v, Player player) {
+        if (!journal.isOpen()) return;
+
+        byte kind;
+        if (EntityUtil.isHorse(v)) kind = JournalEvent.MOUNT_HORSE;
+        else if (EntityUtil.isCamel(v)) kind = JournalEvent.MOUNT_CAMEL;
+        else return;
+
+        Location loc = v.getLocation();
+        journal.write(type, kind, loc.getBlockX(), loc.getBlockY(), loc.getBlockZ(),
+                v.getUniqueId(), player.getUniqueId(), 0f, 0f);
     }
 }
\ No newline at end of file
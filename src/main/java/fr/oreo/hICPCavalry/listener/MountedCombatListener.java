@@ -0,0 +1,57 @@
+package fr.oreo.hICPCavalry.listener;
+
+import fr.oreo.hICPCavalry.config.CavalryConfig;
+import fr.oreo.hICPCavalry.service.MountKinematics;
+import fr.oreo.hICPCavalry.util.EntityUtil;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.util.logging.Logger;
+
+/**
+ * Lance charge: melee sword hits from a moving horse or camel get a damage bonus
+ * that grows with the mount's measured speed.
+ */
+public final class MountedCombatListener implements Listener {
+
+    private final Logger logger;
+    private final CavalryConfig cfg;
+    private final MountKinematics kinematics;
+
+    public MountedCombatListener(Plugin plugin, CavalryConfig cfg, MountKinematics kinematics) {
+        this.logger = plugin.getLogger();
+        this.cfg = cfg;
+        this.kinematics = kinematics;
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onHit(EntityDamageByEntityEvent e) {
+        if (!cfg.combatEnabled || !cfg.chargeEnabled) return;
+        if (e.getCause() != EntityDamageEvent.DamageCause.ENTITY_ATTACK) return;
+        if (!(e.getDamager() instanceof Player rider)) return;
+
+        Entity mount = rider.getVehicle();
+        if (mount == null) return;
+        if (!(cfg.horsesEnabled && EntityUtil.isHorse(mount)) && !(cfg.camelsEnabled && EntityUtil.isCamel(mount))) return;
+        if (!EntityUtil.isSword(rider.getInventory().getItemInMainHand(), cfg.onlyVanillaSwords)) return;
+
+        double speed = kinematics.speedBps(mount.getUniqueId());
+        if (speed <= cfg.chargeMinSpeedBps) return;
+
+        double t = Math.min(1.0, (speed - cfg.chargeMinSpeedBps) / (cfg.chargeFullSpeedBps - cfg.chargeMinSpeedBps));
+        double bonusPct = cfg.chargeMaxBonusPct * t;
+        double damage = e.getDamage();
+        e.setDamage(damage * (1.0 + bonusPct / 100.0));
+
+        if (cfg.debugEnabled && cfg.debugCombatChargeBonus) {
+            logger.info("[Debug] Charge hit by " + rider.getName() + " at " + String.format("%.2f", speed) +
+                    " bps: +" + String.format("%.1f", bonusPct) + "% (" + damage + " -> " + e.getDamage() + ")");
+        }
+    }
+}
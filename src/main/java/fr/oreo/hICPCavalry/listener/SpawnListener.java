@@ -1,10 +1,13 @@
 package fr.oreo.hICPCavalry.listener;
 
 import fr.oreo.hICPCavalry.config.CavalryConfig;
-import fr.oreo.hICPCavalry.service.MountStatService;
+import fr.oreo.hICPCavalry.registry.MountRegistry;
+import fr.oreo.hICPCavalry.service.HorseNormalizationQueue;
+import org.bukkit.entity.AbstractHorse;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Horse;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.CreatureSpawnEvent;
 import org.bukkit.plugin.Plugin;
@@ -16,17 +19,24 @@ public final class SpawnListener implements Listener {
     private final Plugin plugin;
     private final Logger logger;
     private final CavalryConfig cfg;
-    private final MountStatService statService;
+    private final HorseNormalizationQueue normalizationQueue;
+    private final MountRegistry registry;
 
-    public SpawnListener(Plugin plugin, CavalryConfig cfg, MountStatService statService) {
+    public SpawnListener(Plugin plugin, CavalryConfig cfg, HorseNormalizationQueue normalizationQueue, MountRegistry registry) {
         this.plugin = plugin;
         this.logger = plugin.getLogger();
         this.cfg = cfg;
-        this.statService = statService;
+        this.normalizationQueue = normalizationQueue;
+        this.registry = registry;
     }
 
-    @EventHandler
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onSpawn(CreatureSpawnEvent e) {
+        // Spawned already tamed (commands, other plugins); update() ignores anything else
+        if (e.getEntity() instanceof AbstractHorse mount && mount.isTamed()) {
+            registry.update(mount);
+        }
+
         if (!cfg.horsesEnabled) return;
         if (e.getEntityType() != EntityType.HORSE) return;
 
@@ -37,6 +47,6 @@ public final class SpawnListener implements Listener {
                     e.getLocation().getBlockX() + "," + e.getLocation().getBlockY() + "," + e.getLocation().getBlockZ());
         }
 
-        statService.normalizeHorseOnSpawn(horse);
+        normalizationQueue.enqueueSpawned(horse);
     }
 }
\ No newline at end of file
@@ -1,34 +1,78 @@
 package fr.oreo.hICPCavalry.listener;
 
+import fr.oreo.hICPCavalry.api.TraversalVerdict;
 import fr.oreo.hICPCavalry.config.CavalryConfig;
+import fr.oreo.hICPCavalry.config.WorldProfile;
+import fr.oreo.hICPCavalry.config.WorldProfiles;
+import fr.oreo.hICPCavalry.core.TraversalResult;
+import fr.oreo.hICPCavalry.core.TraversalRules;
+import fr.oreo.hICPCavalry.jfr.TraversalCheckEvent;
+import fr.oreo.hICPCavalry.journal.CavalryJournal;
+import fr.oreo.hICPCavalry.journal.JournalEvent;
+import fr.oreo.hICPCavalry.perf.AllocationMonitor;
+import fr.oreo.hICPCavalry.perf.HotPath;
+import fr.oreo.hICPCavalry.service.ChunkPrefetcher;
+import fr.oreo.hICPCavalry.service.MountKinematics;
+import fr.oreo.hICPCavalry.service.MountStatService;
+import fr.oreo.hICPCavalry.service.SpeedAnomalyDetector;
 import fr.oreo.hICPCavalry.util.EntityUtil;
+import fr.oreo.hICPCavalry.util.WorldBlockAccess;
+import jdk.jfr.EventType;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
-import org.bukkit.Material;
 import org.bukkit.Sound;
-import org.bukkit.block.Block;
 import org.bukkit.entity.AbstractHorse;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
+import org.bukkit.event.entity.PlayerDeathEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.vehicle.VehicleEnterEvent;
+import org.bukkit.event.vehicle.VehicleExitEvent;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.util.Vector;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.logging.Logger;
 
+/**
+ * Traversal checks of mounted moves.
+ *
+ * This listener only follows who rides a horse or camel. The {@link PlayerMoveEvent} handler
+ * is registered while at least one player does and unregistered when the last one gets off,
+ * so players on foot never reach it.
+ */
 public final class VehicleMoveListener implements Listener {
 
+    private static final EventType CHECK_EVENT = EventType.getEventType(TraversalCheckEvent.class);
+
     private final Plugin plugin;
     private final Logger logger;
     private final CavalryConfig cfg;
-    private int debugCounter = 0;
+    private final CavalryJournal journal;
+    private final AllocationMonitor allocations;
+    private final MountKinematics kinematics;
+    private final WorldProfiles profiles;
+    private final MountStatService statService;
+
+    /** Players riding a supported mount; the move handler is registered while non-empty. */
+    private final Set<UUID> riders = new HashSet<>();
+    private final Listener moveHandler = new MoveHandler();
+    private boolean moveHandlerRegistered;
+    private final TraversalRules traversal = new TraversalRules();
+    private final WorldBlockAccess blocks = new WorldBlockAccess();
+    private final ChunkPrefetcher prefetcher;
+    private final SpeedAnomalyDetector anomalies;
 
     private final Map<UUID, Long> lastWarningTime = new HashMap<>();
     private final Map<UUID, Long> lastRearTime = new HashMap<>();
@@ -39,37 +83,141 @@ public final class VehicleMoveListener implements Listener {
 
     private static final boolean ENABLE_BOUNCE_BACK = true;
     private static final double BOUNCE_BACK_STRENGTH = 0.25;
-    public VehicleMoveListener(Plugin plugin, CavalryConfig cfg) {
+    public VehicleMoveListener(Plugin plugin, CavalryConfig cfg, CavalryJournal journal, AllocationMonitor allocations,
+                               MountKinematics kinematics, WorldProfiles profiles, MountStatService statService) {
         this.plugin = plugin;
         this.logger = plugin.getLogger();
         this.cfg = cfg;
+        this.journal = journal;
+        this.allocations = allocations;
+        this.kinematics = kinematics;
+        this.profiles = profiles;
+        this.statService = statService;
+        this.prefetcher = new ChunkPrefetcher(plugin, cfg);
+        this.anomalies = new SpeedAnomalyDetector(plugin, cfg, journal);
         logger.info("[VehicleMoveListener] Listener initialized!");
     }
 
-    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = false)
-    public void onPlayerMove(PlayerMoveEvent e) {
-        debugCounter++;
-        if (debugCounter % 100 == 0) {
+    /**
+     * Picks up players already riding (plugin reload).
+     */
+    public void start() {
+        prefetcher.start();
+        for (Player p : Bukkit.getOnlinePlayers()) {
+            if (isSupported(p.getVehicle())) riders.add(p.getUniqueId());
         }
+        updateMoveHandler();
+    }
+
+    public void stop() {
+        prefetcher.stop();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEnter(VehicleEnterEvent e) {
+        if (!(e.getEntered() instanceof Player p) || !isSupported(e.getVehicle())) return;
+        riders.add(p.getUniqueId());
+        updateMoveHandler();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onExit(VehicleExitEvent e) {
+        if (!(e.getExited() instanceof Player p)) return;
+        lastSafeLocation.remove(e.getVehicle().getUniqueId());
+        removeRider(p);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent e) {
+        removeRider(e.getPlayer());
+    }
 
-        if (!cfg.traversalEnabled) return;
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDeath(PlayerDeathEvent e) {
+        removeRider(e.getPlayer());
+    }
 
+    private void removeRider(Player p) {
+        anomalies.forget(p.getUniqueId());
+        if (riders.remove(p.getUniqueId())) updateMoveHandler();
+    }
+
+    private void updateMoveHandler() {
+        if (!riders.isEmpty() && !moveHandlerRegistered) {
+            Bukkit.getPluginManager().registerEvents(moveHandler, plugin);
+            moveHandlerRegistered = true;
+        } else if (riders.isEmpty() && moveHandlerRegistered) {
+            HandlerList.unregisterAll(moveHandler);
+            moveHandlerRegistered = false;
+        }
+
+        if (cfg.debugEnabled && cfg.debugPerformanceMountState) {
+            logger.info("[Debug] Mounted riders: " + riders.size() + ", move handler " +
+                    (moveHandlerRegistered ? "registered" : "unregistered"));
+        }
+    }
+
+    private static boolean isSupported(Entity v) {
+        return v instanceof LivingEntity && (EntityUtil.isHorse(v) || EntityUtil.isCamel(v));
+    }
+
+    /**
+     * Registered only while {@link #riders} is non-empty.
+     */
+    private final class MoveHandler implements Listener {
+        @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+        public void onPlayerMove(PlayerMoveEvent e) {
+            handleMove(e);
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+        public void onPlayerMoved(PlayerMoveEvent e) {
+            recordMove(e);
+        }
+    }
+
+    private void handleMove(PlayerMoveEvent e) {
         Player player = e.getPlayer();
-        if (!player.isInsideVehicle()) return;
+        if (!riders.contains(player.getUniqueId())) return;
 
         Entity v = player.getVehicle();
-        if (v == null) return;
+        if (!isSupported(v)) {
+            // Got off without a dismount event reaching us
+            removeRider(player);
+            return;
+        }
+        LivingEntity le = (LivingEntity) v;
 
-        boolean isHorse = EntityUtil.isHorse(v);
-        boolean isCamel = EntityUtil.isCamel(v) || v.getType().name().equals("CAMEL");
-        if (!isHorse && !isCamel) return;
+        WorldProfile rules = profiles.of(v.getWorld());
+        if (!rules.traversalEnabled) return;
 
-        if (!(v instanceof LivingEntity le)) return;
+        long alloc = allocations.begin();
+        checkTraversal(e, player, v, le, rules);
+        allocations.end(HotPath.TRAVERSAL_CHECK, alloc, 1);
+    }
+
+    /**
+     * Feeds the kinematics track and the anomaly detector with moves that really happened:
+     * nothing (ours included) cancelled them.
+     */
+    private void recordMove(PlayerMoveEvent e) {
+        Player player = e.getPlayer();
+        if (!riders.contains(player.getUniqueId())) return;
+        if (!(player.getVehicle() instanceof LivingEntity le) || !isSupported(le)) return;
 
-        Location from = e.getFrom();
         Location to = e.getTo();
-        if (to == null) return;
+        kinematics.record(le.getUniqueId(), to.getX(), to.getZ());
+        if (!cfg.anomalyEnabled) return;
 
+        Location from = e.getFrom();
+        double dx = to.getX() - from.getX();
+        double dz = to.getZ() - from.getZ();
+        anomalies.sample(player, le, Math.sqrt(dx * dx + dz * dz), Bukkit.getCurrentTick());
+    }
+
+    private void checkTraversal(PlayerMoveEvent e, Player player, Entity v, LivingEntity le, WorldProfile rules) {
+        Location from = e.getFrom();
+        Location to = e.getTo();
 
         double dx = to.getX() - from.getX();
         double dz = to.getZ() - from.getZ();
@@ -83,74 +231,104 @@ public final class VehicleMoveListener implements Listener {
         if (horizontalMovement < 0.001) return;
 
 
-        Vector direction = to.toVector().subtract(from.toVector()).normalize();
-        Vector probe = new Vector(direction.getX(), 0, direction.getZ()).normalize();
-
-        if (probe.lengthSquared() < 0.01) {
+        UUID id = v.getUniqueId();
+        double probeX;
+        double probeZ;
+        if (kinematics.hasHeading(id)) {
+            probeX = kinematics.headingX(id);
+            probeZ = kinematics.headingZ(id);
+        } else {
+            // First move after mounting or a stall: this move is the only direction we have
+            probeX = dx / horizontalMovement;
+            probeZ = dz / horizontalMovement;
             if (cfg.debugEnabled) {
-                logger.info("[Debug] TRAVERSAL: Invalid probe direction");
+                logger.info("[Debug] TRAVERSAL: No recent heading, probing along this move");
             }
-            return;
         }
 
-        Block frontBody = EntityUtil.blockAt(le, probe);
-        if (frontBody == null) {
-            if (cfg.debugEnabled) {
-                logger.info("[Debug] TRAVERSAL: Front body block is null");
-            }
-            return;
+        double speed = kinematics.speedBps(id);
+        boolean newChunk = (from.getBlockX() >> 4) != (to.getBlockX() >> 4) || (from.getBlockZ() >> 4) != (to.getBlockZ() >> 4);
+        if (newChunk && speed >= cfg.prefetchMinSpeedBps) {
+            prefetcher.ahead(v.getWorld(), to.getX(), to.getZ(), probeX, probeZ);
         }
 
-        Block frontFeet = frontBody.getRelative(0, -1, 0);
+        // Sweep from where the move started to a speed-scaled point past where it ends
+        double lookahead = Math.max(1.0, speed / 20.0 * rules.lookaheadTicks);
+        double endX = to.getX() + probeX * lookahead;
+        double endZ = to.getZ() + probeZ * lookahead;
+        Location at = le.getLocation();
+        int mx = at.getBlockX();
+        int my = at.getBlockY();
+        int mz = at.getBlockZ();
+
+        TraversalCheckEvent check = null;
+        if (CHECK_EVENT.isEnabled()) {
+            check = new TraversalCheckEvent();
+            check.begin();
+        }
 
         if (cfg.debugEnabled) {
             logger.info("[Debug] TRAVERSAL CHECK: Player " + player.getName() + " on " + v.getType() +
-                    ", frontBody: " + frontBody.getType() + " @ " + frontBody.getLocation() +
-                    ", frontFeet: " + frontFeet.getType() + " @ " + frontFeet.getLocation());
+                    ", sweep " + from.getX() + "," + from.getZ() + " -> " + endX + "," + endZ +
+                    " (lookahead " + lookahead + ", feet y " + (my - 1) + ")");
         }
 
+        TraversalResult verdict = traversal.sweep(blocks.use(v.getWorld()), rules.traversal,
+                from.getX(), from.getZ(), endX, endZ, mx, my, mz);
+        commitCheck(check, v, verdict);
 
-        if (cfg.waterEnabled && EntityUtil.isWater(frontFeet.getType())) {
-            if (cfg.debugEnabled) {
-                logger.info("[Debug] WATER DETECTED ahead (feet)!");
-            }
+        if (cfg.debugEnabled) {
+            logger.info("[Debug] TRAVERSAL: verdict " + verdict + " after " + traversal.scanned() + " block(s)");
+        }
 
-            if (shouldRefuseWater(frontFeet, le)) {
-                blockMovement(e, v, player, "§9Deep water ahead!", Sound.ENTITY_HORSE_BREATHE, probe);
-                return;
-            } else if (cfg.debugEnabled) {
-                logger.info("[Debug] Water entry allowed (shallow / edge / anti-stuck)");
-            }
+        switch (verdict) {
+            case WATER -> blockMovement(e, v, player, "§9Deep water ahead!", Sound.ENTITY_HORSE_BREATHE, probeX, probeZ, JournalEvent.BLOCK_WATER);
+            case CLIFF -> blockMovement(e, v, player, "§c⚠ Cliff ahead!", Sound.ENTITY_HORSE_ANGRY, probeX, probeZ, JournalEvent.BLOCK_CLIFF);
+            case HAZARD -> blockMovement(e, v, player, "§6Hazard below!", Sound.BLOCK_FIRE_AMBIENT, probeX, probeZ, JournalEvent.BLOCK_HAZARD);
+            case HOLD -> holdMovement(e, v, probeX, probeZ);
+            default -> lastSafeLocation.put(v.getUniqueId(), v.getLocation().clone());
         }
+    }
 
+    private void commitCheck(TraversalCheckEvent check, Entity vehicle, TraversalResult verdict) {
+        statService.recordTraversal(vehicle, TraversalVerdict.of(verdict));
+        if (check == null || !check.shouldCommit()) return;
+        check.mountType = vehicle.getType().name();
+        check.verdict = verdict.name();
+        check.blocksScanned = traversal.scanned();
+        check.commit();
+    }
 
-        if (cfg.cliffDropBlocks > 0) {
-            if (cfg.debugEnabled) {
-                logger.info("[Debug] CHECKING FOR CLIFF (limit: " + cfg.cliffDropBlocks + " blocks)");
-            }
 
-            if (isCliffDrop(frontFeet, cfg.cliffDropBlocks)) {
-                blockMovement(e, v, player, "§c⚠ Cliff ahead!", Sound.ENTITY_HORSE_ANGRY, probe);
-                return;
-            } else if (cfg.debugEnabled) {
-                logger.info("[Debug] No cliff detected");
-            }
-        }
+    /**
+     * The way ahead is not loaded: stop quietly (no warning, no rearing) and make sure the
+     * chunk is on its way; the rider moves on once it is there.
+     */
+    private void holdMovement(PlayerMoveEvent e, Entity vehicle, double probeX, double probeZ) {
+        e.setCancelled(true);
+        Vector vel = vehicle.getVelocity();
+        vehicle.setVelocity(new Vector(0, vel.getY(), 0));
+        Location at = vehicle.getLocation();
+        prefetcher.ahead(vehicle.getWorld(), at.getX(), at.getZ(), probeX, probeZ);
 
-        if (cfg.hazardScanDepth > 0 && (cfg.hazardLava || cfg.hazardMagma)) {
-            if (hasHazardBelow(frontFeet, cfg.hazardScanDepth)) {
-                blockMovement(e, v, player, "§6Hazard below!", Sound.BLOCK_FIRE_AMBIENT, probe);
-                return;
-            }
+        if (cfg.debugEnabled) {
+            logger.info("[Debug] Movement HELD at unloaded chunk ahead of " + vehicle.getUniqueId());
         }
-
-        lastSafeLocation.put(v.getUniqueId(), v.getLocation().clone());
     }
 
-
-    private void blockMovement(PlayerMoveEvent e, Entity vehicle, Player player, String message, Sound sound, Vector probe) {
+    private void blockMovement(PlayerMoveEvent e, Entity vehicle, Player player, String message, Sound sound,
+                               double probeX, double probeZ, byte journalType) {
         e.setCancelled(true);
 
+        if (journal.isOpen()) {
+            Location to = e.getTo();
+            double dx = to.getX() - e.getFrom().getX();
+            double dz = to.getZ() - e.getFrom().getZ();
+            journal.write(journalType, EntityUtil.isHorse(vehicle) ? JournalEvent.MOUNT_HORSE : JournalEvent.MOUNT_CAMEL,
+                    to.getBlockX(), to.getBlockY(), to.getBlockZ(),
+                    vehicle.getUniqueId(), player.getUniqueId(), (float) Math.sqrt(dx * dx + dz * dz), 0f);
+        }
+
         Location safe = lastSafeLocation.get(vehicle.getUniqueId());
         if (safe != null) {
             vehicle.teleport(safe);
@@ -158,10 +336,8 @@ public final class VehicleMoveListener implements Listener {
 
         vehicle.setVelocity(new Vector(0, 0, 0));
 
-        if (ENABLE_BOUNCE_BACK && probe != null && probe.lengthSquared() > 0.0001) {
-            Vector back = probe.clone().multiply(-BOUNCE_BACK_STRENGTH);
-            back.setY(0.05);
-            vehicle.setVelocity(back);
+        if (ENABLE_BOUNCE_BACK && probeX * probeX + probeZ * probeZ > 0.0001) {
+            vehicle.setVelocity(new Vector(-probeX * BOUNCE_BACK_STRENGTH, 0.05, -probeZ * BOUNCE_BACK_STRENGTH));
         }
 
         long now = System.currentTimeMillis();
@@ -206,101 +382,4 @@ public final class VehicleMoveListener implements Listener {
             }
         }
     }
-
-
-    private boolean shouldRefuseWater(Block waterStartFeet, LivingEntity vehicle) {
-        double depthN = Math.max(0.5, cfg.waterRefuseDepthAtLeast);
-
-        int depth = 0;
-        Block cursor = waterStartFeet;
-        for (int i = 0; i < depthN; i++) {
-            if (!EntityUtil.isWater(cursor.getType())) break;
-            depth++;
-            cursor = cursor.getRelative(0, -1, 0);
-        }
-
-        boolean deep = depth >= depthN;
-
-        if (cfg.debugEnabled) {
-            logger.info("[Debug] Water depth check - depth=" + depth + ", min=" + depthN + ", deep=" + deep);
-        }
-
-        if (!deep) return false;
-
-        if (cfg.waterAntiStuck) {
-            Block below = vehicle.getLocation().getBlock().getRelative(0, -1, 0);
-            boolean horseIsInWater = EntityUtil.isWater(below.getType());
-
-            if (cfg.debugEnabled) {
-                logger.info("[Debug] Anti-stuck check - Horse currently in water: " + horseIsInWater);
-            }
-
-            if (horseIsInWater) return false;
-            return true;
-        }
-
-        return true;
-    }
-
-
-    private boolean isCliffDrop(Block stepBlockFeet, double dropLimit) {
-        Material typeHere = stepBlockFeet.getType();
-        if (!stepBlockFeet.isPassable() && typeHere != Material.AIR && typeHere != Material.WATER) {
-            if (cfg.debugEnabled) {
-                logger.info("[Debug] Cliff check - Step block not passable (ground exists): " + typeHere);
-            }
-            return false;
-        }
-
-        int maxScan = (int) Math.ceil(dropLimit + 3.0);
-        Block cursor = stepBlockFeet;
-        int drop = 0;
-
-        for (int i = 0; i < maxScan; i++) {
-            cursor = cursor.getRelative(0, -1, 0);
-            Material type = cursor.getType();
-
-            if (!cursor.isPassable() && type != Material.AIR && type != Material.WATER) {
-                break;
-            }
-
-            drop++;
-        }
-
-        boolean isCliff = drop > dropLimit;
-
-        if (cfg.debugEnabled) {
-            logger.info("[Debug] Cliff check - Drop distance: " + drop + " blocks, Limit: " + dropLimit +
-                    ", Is cliff: " + isCliff);
-        }
-
-        return isCliff;
-    }
-
-    private boolean hasHazardBelow(Block startFeet, double depth) {
-        int scan = (int) Math.ceil(depth);
-        Block cursor = startFeet;
-
-        for (int i = 0; i <= scan; i++) {
-            Material t = cursor.getType();
-
-            if (cfg.hazardLava && EntityUtil.isLava(t)) {
-                if (cfg.debugEnabled) {
-                    logger.info("[Debug] Hazard detected - Lava at depth " + i + " blocks");
-                }
-                return true;
-            }
-
-            if (cfg.hazardMagma && EntityUtil.isMagma(t)) {
-                if (cfg.debugEnabled) {
-                    logger.info("[Debug] Hazard detected - Magma at depth " + i + " blocks");
-                }
-                return true;
-            }
-
-            cursor = cursor.getRelative(0, -1, 0);
-        }
-
-        return false;
-    }
 }
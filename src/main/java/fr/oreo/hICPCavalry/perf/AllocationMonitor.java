@@ -0,0 +1,110 @@
+package fr.oreo.hICPCavalry.perf;
+
+import fr.oreo.hICPCavalry.config.CavalryConfig;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Logger;
+
+/**
+ * Measures bytes allocated per call on the {@link HotPath}s using the JVM's per-thread
+ * allocation counters, and periodically reports each path against its budget.
+ *
+ * Only active with debug.enabled and debug.performance.allocation_budgets; otherwise
+ * {@link #begin()} returns -1 and {@link #end} returns immediately.
+ */
+public final class AllocationMonitor {
+
+    private static final HotPath[] PATHS = HotPath.values();
+
+    private final Plugin plugin;
+    private final Logger logger;
+    private final CavalryConfig cfg;
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final boolean active;
+
+    // Indexed by HotPath ordinal; written from the main thread and the compute pool
+    private final AtomicLongArray bytes = new AtomicLongArray(PATHS.length);
+    private final AtomicLongArray calls = new AtomicLongArray(PATHS.length);
+
+    private BukkitTask task;
+
+    public AllocationMonitor(Plugin plugin, CavalryConfig cfg) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.cfg = cfg;
+
+        com.sun.management.ThreadMXBean bean = null;
+        if (cfg.debugEnabled && cfg.debugPerformanceAllocations
+                && ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean sun
+                && sun.isThreadAllocatedMemorySupported()) {
+            sun.setThreadAllocatedMemoryEnabled(true);
+            bean = sun;
+        }
+        this.threads = bean;
+        this.active = bean != null;
+
+        if (cfg.debugEnabled && cfg.debugPerformanceAllocations && !active) {
+            logger.warning("Allocation budgets requested but this JVM has no per-thread allocation counters");
+        }
+    }
+
+    public void start() {
+        if (!active) return;
+        long period = Math.max(1, cfg.debugAllocationReportSeconds) * 20L;
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::report, period, period);
+    }
+
+    public void stop() {
+        if (task != null) task.cancel();
+        if (active) report();
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * @return current thread's allocated bytes, or -1 when not measuring
+     */
+    public long begin() {
+        return active ? threads.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    public void end(HotPath path, long start, int n) {
+        if (start < 0 || n <= 0) return;
+        long used = threads.getCurrentThreadAllocatedBytes() - start;
+        bytes.addAndGet(path.ordinal(), used);
+        calls.addAndGet(path.ordinal(), n);
+    }
+
+    /**
+     * @return mean bytes per call on the path since the last report, or -1 if it has not run
+     */
+    public long bytesPerCall(HotPath path) {
+        long n = calls.get(path.ordinal());
+        return n == 0 ? -1 : bytes.get(path.ordinal()) / n;
+    }
+
+    private void report() {
+        for (HotPath path : PATHS) {
+            int i = path.ordinal();
+            long n = calls.getAndSet(i, 0);
+            long b = bytes.getAndSet(i, 0);
+            if (n == 0) continue;
+
+            long perCall = b / n;
+            if (perCall > path.budgetBytes) {
+                logger.warning("[Alloc] " + path + " over budget: " + perCall + " B/call (budget " +
+                        path.budgetBytes + ", " + n + " calls)");
+            } else {
+                logger.info("[Debug] [Alloc] " + path + ": " + perCall + " B/call (budget " +
+                        path.budgetBytes + ", " + n + " calls)");
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package fr.oreo.hICPCavalry.perf;
+
+/**
+ * Per-tick code paths with an explicit allocation budget (bytes per call).
+ * Lower a budget when garbage-reduction work lands so regressions show up in the report.
+ * The tests in {@code src/test} run the listener and stat stages against a mock server and
+ * hold them to these budgets; the server-independent rules in {@code core} are held to zero.
+ */
+public enum HotPath {
+
+    /** VehicleMoveListener traversal check of one mounted move (TraversalRules sweep over WorldBlockAccess) */
+    TRAVERSAL_CHECK(4096),
+    /** MountStatService snapshot of one rider (attribute bases, armor points, cached environment lookup) */
+    STAT_SNAPSHOT(2048),
+    /** RefreshBatch.compute per rider: pure primitive math */
+    STAT_COMPUTE(0),
+    /** MountStatService apply stage per rider */
+    STAT_APPLY(512),
+    /** LeashSinkingService tick per tracked horse */
+    LEASH_SINK(1024);
+
+    public final long budgetBytes;
+
+    HotPath(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+}
@@ -0,0 +1,23 @@
+package fr.oreo.hICPCavalry.registry;
+
+import java.util.UUID;
+
+/**
+ * Last known state of a tamed mount, as kept by {@link MountRegistry}.
+ * Immutable so the writer thread can serialize it while the main thread replaces it.
+ *
+ * @param armor horse armor material name, or "NONE"
+ */
+public record MountEntry(
+        UUID id,
+        String type,
+        UUID owner,
+        String world,
+        int x,
+        int y,
+        int z,
+        double baseSpeed,
+        double baseJump,
+        String armor,
+        long updatedAt
+) {}
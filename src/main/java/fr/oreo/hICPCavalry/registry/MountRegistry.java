@@ -0,0 +1,348 @@
+package fr.oreo.hICPCavalry.registry;
+
+import fr.oreo.hICPCavalry.config.CavalryConfig;
+import fr.oreo.hICPCavalry.data.CavalryData;
+import fr.oreo.hICPCavalry.data.CavalryRecord;
+import fr.oreo.hICPCavalry.keys.Keys;
+import fr.oreo.hICPCavalry.util.EntityUtil;
+import fr.oreo.hICPCavalry.util.SeededStats;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.entity.AbstractHorse;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Horse;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.entity.EntityTameEvent;
+import org.bukkit.event.world.EntitiesUnloadEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * File-backed index of tamed horses and camels, so owners, locations and stats
+ * can be looked up without loading chunks.
+ *
+ * The main thread only replaces entries in memory and marks them dirty.
+ * A background thread appends dirty entries to {@code mounts.idx} in batches
+ * and rewrites the file when the log has grown well past the live entry count.
+ */
+public final class MountRegistry implements Listener {
+
+    private static final int MAGIC = 0x48435231; // "HCR1"
+    private static final byte OP_PUT = 1;
+    private static final byte OP_REMOVE = 2;
+
+    private final Plugin plugin;
+    private final Logger logger;
+    private final CavalryConfig cfg;
+    private final CavalryData data;
+    private final Path file;
+
+    private final Map<UUID, MountEntry> entries = new ConcurrentHashMap<>();
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService writer;
+    // Only touched by the writer thread (and by start/stop while it is not running)
+    private int logRecords;
+
+    public MountRegistry(Plugin plugin, CavalryConfig cfg) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.cfg = cfg;
+        this.data = new CavalryData(new Keys(plugin));
+        this.file = plugin.getDataFolder().toPath().resolve("mounts.idx");
+    }
+
+    public void start() {
+        if (!cfg.registryEnabled) return;
+
+        if (!load()) return;
+
+        writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "HICP-Cavalry-Registry");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1, cfg.registryFlushIntervalSeconds);
+        writer.scheduleWithFixedDelay(this::flush, period, period, TimeUnit.SECONDS);
+
+        if (cfg.debugEnabled) {
+            logger.info("[Debug] Mount registry loaded " + entries.size() + " mount(s) from " + file.getFileName());
+        }
+    }
+
+    public void stop() {
+        if (writer == null) return;
+
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+
+        // Final flush on the disabling thread so nothing queued is lost
+        flush();
+    }
+
+    public boolean isEnabled() {
+        return writer != null;
+    }
+
+    public MountEntry get(UUID id) {
+        return entries.get(id);
+    }
+
+    public List<MountEntry> byOwner(UUID owner) {
+        List<MountEntry> out = new ArrayList<>();
+        for (MountEntry e : entries.values()) {
+            if (owner.equals(e.owner())) out.add(e);
+        }
+        return out;
+    }
+
+    /**
+     * Records the current state of a tamed horse or camel. Untamed mounts are ignored.
+     */
+    public void update(Entity ent) {
+        if (writer == null) return;
+        if (!(ent instanceof AbstractHorse mount)) return;
+
+        boolean horse = ent instanceof Horse;
+        if (!horse && !EntityUtil.isCamel(ent)) return;
+        if (!mount.isTamed() && mount.getOwnerUniqueId() == null) return;
+
+        CavalryRecord record = data.read(mount);
+        double baseSpeed;
+        double baseJump;
+        if (horse && cfg.horseSeededBaseStats) {
+            UUID seed = record.seedOr(mount.getUniqueId());
+            baseSpeed = SeededStats.baseSpeed(seed, cfg);
+            baseJump = SeededStats.baseJump(seed, cfg);
+        } else {
+            baseSpeed = record.hasBaseSpeed() ? record.baseSpeed() : attributeBase(mount, Attribute.MOVEMENT_SPEED);
+            baseJump = record.hasBaseJump() ? record.baseJump() : attributeBase(mount, Attribute.JUMP_STRENGTH);
+        }
+
+        String armor = "NONE";
+        if (mount instanceof Horse h) {
+            ItemStack it = h.getInventory().getArmor();
+            if (it != null && !it.getType().isAir()) armor = it.getType().name();
+        }
+
+        Location loc = mount.getLocation();
+        MountEntry entry = new MountEntry(
+                mount.getUniqueId(),
+                mount.getType().name(),
+                mount.getOwnerUniqueId(),
+                loc.getWorld() == null ? "" : loc.getWorld().getName(),
+                loc.getBlockX(), loc.getBlockY(), loc.getBlockZ(),
+                baseSpeed, baseJump, armor,
+                System.currentTimeMillis()
+        );
+
+        entries.put(entry.id(), entry);
+        dirty.add(entry.id());
+    }
+
+    public void remove(UUID id) {
+        if (writer == null) return;
+        if (entries.remove(id) != null) dirty.add(id);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onTame(EntityTameEvent e) {
+        if (writer == null) return;
+        // Owner and tamed flag are only set after the event
+        Entity ent = e.getEntity();
+        if (ent instanceof AbstractHorse) {
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (ent.isValid()) update(ent);
+            });
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesUnload(EntitiesUnloadEvent e) {
+        if (writer == null) return;
+        // Also picks up tamed mounts from before the registry existed; update() skips untamed ones
+        for (Entity ent : e.getEntities()) {
+            if (ent instanceof AbstractHorse) update(ent);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDeath(EntityDeathEvent e) {
+        remove(e.getEntity().getUniqueId());
+    }
+
+    private static double attributeBase(AbstractHorse mount, Attribute a) {
+        AttributeInstance ai = mount.getAttribute(a);
+        return ai == null ? 0.0 : ai.getBaseValue();
+    }
+
+    // ---- storage (writer thread) ----
+
+    private synchronized void flush() {
+        if (dirty.isEmpty()) return;
+
+        try {
+            if (logRecords > entries.size() * 2 + 1024) {
+                dirty.clear();
+                compact();
+                return;
+            }
+
+            boolean fresh = !Files.exists(file);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND)))) {
+                if (fresh) out.writeInt(MAGIC);
+
+                Iterator<UUID> it = dirty.iterator();
+                while (it.hasNext()) {
+                    UUID id = it.next();
+                    it.remove();
+
+                    MountEntry entry = entries.get(id);
+                    if (entry == null) writeRemove(out, id);
+                    else writePut(out, entry);
+                    logRecords++;
+                }
+            }
+        } catch (IOException ex) {
+            logger.warning("Could not write mount registry: " + ex.getMessage());
+        }
+    }
+
+    private void compact() throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        int written = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            for (MountEntry entry : entries.values()) {
+                writePut(out, entry);
+                written++;
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logRecords = written;
+    }
+
+    /**
+     * @return false if the file exists but cannot be used; the registry then stays off
+     */
+    private boolean load() {
+        entries.clear();
+        dirty.clear();
+        logRecords = 0;
+        if (!Files.exists(file)) return true;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                // Never overwrite a file we do not understand
+                logger.warning("Mount registry disabled for this session, " + file.getFileName() + " has an unknown format");
+                return false;
+            }
+
+            while (true) {
+                byte op;
+                try {
+                    op = in.readByte();
+                } catch (EOFException end) {
+                    break;
+                }
+
+                UUID id = new UUID(in.readLong(), in.readLong());
+                if (op == OP_REMOVE) {
+                    entries.remove(id);
+                } else if (op == OP_PUT) {
+                    entries.put(id, readPut(in, id));
+                } else {
+                    logger.warning("Mount registry truncated at unknown record type " + op);
+                    break;
+                }
+                logRecords++;
+            }
+        } catch (EOFException ex) {
+            // Last batch was cut off (crash while writing); everything before it is kept
+            logger.warning("Mount registry ended mid-record, keeping " + entries.size() + " mount(s)");
+        } catch (IOException ex) {
+            logger.warning("Mount registry disabled for this session, could not read it: " + ex.getMessage());
+            return false;
+        }
+
+        try {
+            compact();
+        } catch (IOException ex) {
+            logger.warning("Could not compact mount registry: " + ex.getMessage());
+        }
+        return true;
+    }
+
+    private static void writePut(DataOutputStream out, MountEntry e) throws IOException {
+        out.writeByte(OP_PUT);
+        out.writeLong(e.id().getMostSignificantBits());
+        out.writeLong(e.id().getLeastSignificantBits());
+        out.writeUTF(e.type());
+        out.writeBoolean(e.owner() != null);
+        if (e.owner() != null) {
+            out.writeLong(e.owner().getMostSignificantBits());
+            out.writeLong(e.owner().getLeastSignificantBits());
+        }
+        out.writeUTF(e.world());
+        out.writeInt(e.x());
+        out.writeInt(e.y());
+        out.writeInt(e.z());
+        out.writeDouble(e.baseSpeed());
+        out.writeDouble(e.baseJump());
+        out.writeUTF(e.armor());
+        out.writeLong(e.updatedAt());
+    }
+
+    private static void writeRemove(DataOutputStream out, UUID id) throws IOException {
+        out.writeByte(OP_REMOVE);
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    private static MountEntry readPut(DataInputStream in, UUID id) throws IOException {
+        String type = in.readUTF();
+        UUID owner = in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+        String world = in.readUTF();
+        int x = in.readInt();
+        int y = in.readInt();
+        int z = in.readInt();
+        double baseSpeed = in.readDouble();
+        double baseJump = in.readDouble();
+        String armor = in.readUTF();
+        long updatedAt = in.readLong();
+        return new MountEntry(id, type, owner, world, x, y, z, baseSpeed, baseJump, armor, updatedAt);
+    }
+}
@@ -0,0 +1,50 @@
+package fr.oreo.hICPCavalry.service;
+
+import fr.oreo.hICPCavalry.config.EnvironmentTable;
+import org.bukkit.World;
+
+import java.util.Arrays;
+
+/**
+ * Biome and temperature percent per chunk section (16x16x16), direct mapped.
+ *
+ * Each slot holds one section's result for every {@link EnvironmentTable} slot; a colliding
+ * section simply replaces it. The biome is sampled once at the section centre, which is
+ * close enough for a riding penalty. Main thread only.
+ */
+final class BiomeSectionCache {
+
+    private static final int SIZE = 4096;
+    private static final int MASK = SIZE - 1;
+
+    private final long[] keys = new long[SIZE];
+    private final int[] worldIds = new int[SIZE];
+    private final boolean[] filled = new boolean[SIZE];
+    private final double[] pct = new double[SIZE * EnvironmentTable.SLOTS];
+
+    double pct(int worldId, World world, EnvironmentTable table, int x, int y, int z, int slot) {
+        int sx = x >> 4;
+        int sy = y >> 4;
+        int sz = z >> 4;
+        long key = ((long) (sx & 0x3FFFFFF) << 38) | ((long) (sz & 0x3FFFFFF) << 12) | (sy & 0xFFF);
+
+        long h = (key ^ (long) worldId * 0x9E3779B97F4A7C15L) * 0xBF58476D1CE4E5B9L;
+        int i = (int) (h >>> 52) & MASK;
+
+        if (!filled[i] || keys[i] != key || worldIds[i] != worldId) {
+            int cx = (sx << 4) + 8;
+            int cy = (sy << 4) + 8;
+            int cz = (sz << 4) + 8;
+            table.biomePct(world.getBiome(cx, cy, cz), world.getTemperature(cx, cy, cz), pct, i * EnvironmentTable.SLOTS);
+            keys[i] = key;
+            worldIds[i] = worldId;
+            filled[i] = true;
+        }
+
+        return pct[i * EnvironmentTable.SLOTS + slot];
+    }
+
+    void clear() {
+        Arrays.fill(filled, false);
+    }
+}
@@ -0,0 +1,155 @@
+package fr.oreo.hICPCavalry.service;
+
+import fr.oreo.hICPCavalry.config.CavalryConfig;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Loads chunks ahead of fast riders in the background (Paper's async chunk loading), so the
+ * traversal scan finds them loaded instead of holding the mount at the border.
+ *
+ * Requests are only made when a rider enters a new chunk, skip loaded chunks and are
+ * de-duplicated while in flight. Only chunks that already exist are loaded, never generated.
+ * A loaded chunk keeps a plugin chunk ticket for {@link #TICKET_TICKS}, so it cannot unload
+ * before the rider gets there. Main thread only.
+ */
+public final class ChunkPrefetcher {
+
+    /** Upper bound on chunk loads in flight, across all worlds. */
+    private static final int MAX_PENDING = 64;
+    /** Upper bound on chunks held by our tickets, across all worlds. */
+    private static final int MAX_TICKETS = 256;
+    /** How long a prefetched chunk is held; a rider covers several chunks in that time. */
+    private static final int TICKET_TICKS = 200;
+
+    private final Plugin plugin;
+    private final Logger logger;
+    private final CavalryConfig cfg;
+
+    private final Map<UUID, Set<Long>> pending = new HashMap<>();
+    private int pendingCount;
+
+    /** World -> chunk key -> tick the ticket expires. */
+    private final Map<UUID, Map<Long, Integer>> tickets = new HashMap<>();
+    private int ticketCount;
+
+    private BukkitTask task;
+
+    public ChunkPrefetcher(Plugin plugin, CavalryConfig cfg) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.cfg = cfg;
+    }
+
+    public void start() {
+        if (!cfg.prefetchEnabled) return;
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::expireTickets, 20L, 20L);
+    }
+
+    public void stop() {
+        if (task != null) task.cancel();
+        task = null;
+
+        for (Map.Entry<UUID, Map<Long, Integer>> e : tickets.entrySet()) {
+            World world = Bukkit.getWorld(e.getKey());
+            if (world == null) continue;
+            for (long key : e.getValue().keySet()) release(world, key);
+        }
+        tickets.clear();
+        ticketCount = 0;
+        pending.clear();
+        pendingCount = 0;
+    }
+
+    /**
+     * Requests the chunks along the unit heading (hx, hz) from (x, z), nearest first.
+     */
+    public void ahead(World world, double x, double z, double hx, double hz) {
+        if (!cfg.prefetchEnabled) return;
+
+        int lastCx = Integer.MIN_VALUE;
+        int lastCz = Integer.MIN_VALUE;
+        for (int k = 1; k <= cfg.prefetchChunksAhead; k++) {
+            int cx = (int) Math.floor(x + hx * 16.0 * k) >> 4;
+            int cz = (int) Math.floor(z + hz * 16.0 * k) >> 4;
+            if (cx == lastCx && cz == lastCz) continue;
+            lastCx = cx;
+            lastCz = cz;
+            request(world, cx, cz);
+        }
+    }
+
+    private void request(World world, int cx, int cz) {
+        if (pendingCount >= MAX_PENDING || ticketCount >= MAX_TICKETS || world.isChunkLoaded(cx, cz)) return;
+
+        long key = Chunk.getChunkKey(cx, cz);
+        UUID worldId = world.getUID();
+        Set<Long> inFlight = pending.computeIfAbsent(worldId, w -> new HashSet<>());
+        if (!inFlight.add(key)) return;
+        pendingCount++;
+
+        if (cfg.debugEnabled && cfg.debugPerformanceMountState) {
+            logger.info("[Debug] Prefetching chunk " + cx + "," + cz + " in " + world.getName());
+        }
+
+        // Completes on the main thread; null when the chunk was never generated
+        world.getChunkAtAsync(cx, cz, false).whenComplete((chunk, ex) -> {
+            Set<Long> s = pending.get(worldId);
+            if (s == null || !s.remove(key)) return; // stopped meanwhile
+            pendingCount--;
+
+            if (ex != null) {
+                if (cfg.debugEnabled) {
+                    logger.warning("Chunk prefetch failed at " + cx + "," + cz + ": " + ex.getMessage());
+                }
+                return;
+            }
+            if (chunk != null) hold(world, key, cx, cz);
+        });
+    }
+
+    private void hold(World world, long key, int cx, int cz) {
+        Map<Long, Integer> held = tickets.computeIfAbsent(world.getUID(), w -> new HashMap<>());
+        if (!held.containsKey(key)) {
+            if (!world.addPluginChunkTicket(cx, cz, plugin)) return;
+            ticketCount++;
+        }
+        held.put(key, Bukkit.getCurrentTick() + TICKET_TICKS);
+    }
+
+    private void expireTickets() {
+        if (ticketCount == 0) return;
+        int now = Bukkit.getCurrentTick();
+
+        for (Iterator<Map.Entry<UUID, Map<Long, Integer>>> worlds = tickets.entrySet().iterator(); worlds.hasNext(); ) {
+            Map.Entry<UUID, Map<Long, Integer>> e = worlds.next();
+            World world = Bukkit.getWorld(e.getKey());
+            Map<Long, Integer> held = e.getValue();
+
+            for (Iterator<Map.Entry<Long, Integer>> it = held.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<Long, Integer> t = it.next();
+                // Tickets of an unloaded world went with it
+                if (world != null && now < t.getValue()) continue;
+                if (world != null) release(world, t.getKey());
+                it.remove();
+                ticketCount--;
+            }
+            if (held.isEmpty()) worlds.remove();
+        }
+    }
+
+    private void release(World world, long key) {
+        world.removePluginChunkTicket((int) key, (int) (key >> 32), plugin);
+    }
+}
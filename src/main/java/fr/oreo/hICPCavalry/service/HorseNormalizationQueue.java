@@ -0,0 +1,133 @@
+package fr.oreo.hICPCavalry.service;
+
+import fr.oreo.hICPCavalry.config.CavalryConfig;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Horse;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.EntitiesLoadEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Deferred horse normalization.
+ * Freshly spawned horses and stale horses from loaded chunks are queued and drained
+ * under a per-tick time limit, so breeding farms, worldgen bursts and config changes
+ * never normalize hundreds of horses in one tick.
+ * Mounting a horse normalizes it immediately (see MountListener), so no rider
+ * ever sees a horse that is still waiting in the queue.
+ */
+public final class HorseNormalizationQueue implements Listener {
+
+    private final Plugin plugin;
+    private final Logger logger;
+    private final CavalryConfig cfg;
+    private final MountStatService statService;
+
+    private final ArrayDeque<Horse> spawned = new ArrayDeque<>();
+    private final ArrayDeque<Horse> pending = new ArrayDeque<>();
+    private final Set<UUID> queued = new HashSet<>();
+    private BukkitTask task;
+
+    public HorseNormalizationQueue(Plugin plugin, CavalryConfig cfg, MountStatService statService) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.cfg = cfg;
+        this.statService = statService;
+    }
+
+    public void start() {
+        if (!cfg.horsesEnabled) return;
+
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+
+        // Horses already loaded (plugin reload) are not covered by EntitiesLoadEvent
+        for (World w : Bukkit.getWorlds()) {
+            for (Horse h : w.getEntitiesByClass(Horse.class)) {
+                enqueueIfStale(h);
+            }
+        }
+
+        if (cfg.debugEnabled && cfg.debugHorseNormalization) {
+            logger.info("[Debug] HorseNormalizationQueue started (migration=" + budget() + "/tick, time limit=" +
+                    cfg.normalizationMaxMillisPerTick + "ms, queued=" + pending.size() + ")");
+        }
+    }
+
+    public void stop() {
+        if (task != null) task.cancel();
+        spawned.clear();
+        pending.clear();
+        queued.clear();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesLoad(EntitiesLoadEvent e) {
+        if (!cfg.horsesEnabled) return;
+        for (Entity ent : e.getEntities()) {
+            if (ent instanceof Horse h) enqueueIfStale(h);
+        }
+    }
+
+    /**
+     * Queues a horse from CreatureSpawnEvent. The entity is not in the world yet,
+     * so it is only touched from the next tick on.
+     */
+    public void enqueueSpawned(Horse h) {
+        if (!queued.add(h.getUniqueId())) return;
+        spawned.addLast(h);
+    }
+
+    private void enqueueIfStale(Horse h) {
+        if (statService.isNormalizationCurrent(h)) return;
+        if (!queued.add(h.getUniqueId())) return;
+        pending.addLast(h);
+    }
+
+    private void tick() {
+        if (spawned.isEmpty() && pending.isEmpty()) return;
+
+        long deadline = System.nanoTime() + (long) (Math.max(0.05, cfg.normalizationMaxMillisPerTick) * 1_000_000L);
+        int fresh = 0;
+        int migrated = 0;
+
+        // New spawns first: they have no stats at all yet
+        while (!spawned.isEmpty() && System.nanoTime() < deadline) {
+            Horse h = spawned.pollFirst();
+            queued.remove(h.getUniqueId());
+
+            // Cancelled spawn, or already normalized by a mount in the meantime
+            if (!h.isValid() || h.isDead()) continue;
+            if (statService.normalizeHorseIfStale(h)) fresh++;
+        }
+
+        int budget = budget();
+        while (migrated < budget && !pending.isEmpty() && System.nanoTime() < deadline) {
+            Horse h = pending.pollFirst();
+            queued.remove(h.getUniqueId());
+
+            // Chunk may have unloaded again while queued; it will be re-queued on the next load
+            if (!h.isValid() || h.isDead()) continue;
+
+            if (statService.normalizeHorseIfStale(h)) migrated++;
+        }
+
+        if (cfg.debugEnabled && cfg.debugHorseNormalization && (fresh > 0 || migrated > 0)) {
+            logger.info("[Debug] Normalized " + fresh + " spawned and " + migrated + " migrated horse(s), " +
+                    (spawned.size() + pending.size()) + " left");
+        }
+    }
+
+    private int budget() {
+        return Math.max(1, cfg.normalizationMigrationPerTick);
+    }
+}
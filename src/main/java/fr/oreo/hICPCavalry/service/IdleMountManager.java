@@ -0,0 +1,293 @@
+package fr.oreo.hICPCavalry.service;
+
+import fr.oreo.hICPCavalry.config.CavalryConfig;
+import fr.oreo.hICPCavalry.data.CavalryData;
+import fr.oreo.hICPCavalry.data.CavalryRecord;
+import fr.oreo.hICPCavalry.keys.Keys;
+import fr.oreo.hICPCavalry.util.EntityUtil;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.AbstractHorse;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.entity.PlayerLeashEntityEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerInteractEntityEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.vehicle.VehicleEnterEvent;
+import org.bukkit.event.world.EntitiesLoadEvent;
+import org.bukkit.event.world.EntitiesUnloadEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Switches off AI ({@code Mob#setAware(false)}) of tamed horses and camels nobody uses:
+ * no rider, no leash and no player within {@code ai_throttle.player_radius}.
+ * Physics keep running, so throttled mounts still fall, float and can be pushed.
+ *
+ * Loaded mounts are checked round-robin, {@code checks_per_tick} per tick. Waking is not
+ * left to that rotation: mounting, leashing, interacting or damage wake the mount at once,
+ * and a player crossing a chunk border wakes throttled mounts within the radius plus the
+ * farthest a player can move without crossing one, so nobody walks up to a frozen mount.
+ *
+ * Throttled mounts are marked in their {@link CavalryRecord}; a mark found on load (crash,
+ * plugin removed mid-session) is simply re-evaluated. Mounts are woken before their chunk is
+ * saved and on disable. Main thread only.
+ */
+public final class IdleMountManager implements Listener {
+
+    /** Farthest a player moves inside one chunk (its diagonal), rounded up. */
+    private static final double CHUNK_MARGIN = 23.0;
+
+    private final Plugin plugin;
+    private final Logger logger;
+    private final CavalryConfig cfg;
+    private final CavalryData data;
+
+    /** Loaded candidate mounts; each id is in {@link #queue} exactly once. */
+    private final Set<UUID> tracked = new HashSet<>();
+    private final ArrayDeque<UUID> queue = new ArrayDeque<>();
+    /** Mounts whose AI we switched off. */
+    private final Set<UUID> throttled = new HashSet<>();
+
+    /** Player positions of the current tick, reused between ticks. */
+    private World[] playerWorld = new World[16];
+    private double[] playerXyz = new double[48];
+    private int players;
+
+    private BukkitTask task;
+
+    public IdleMountManager(Plugin plugin, CavalryConfig cfg) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.cfg = cfg;
+        this.data = new CavalryData(new Keys(plugin));
+    }
+
+    public void start() {
+        if (!cfg.aiThrottleEnabled) return;
+
+        // One-time pass over what is already loaded (plugin reload); afterwards chunk events keep us in sync.
+        for (World w : Bukkit.getWorlds()) {
+            for (AbstractHorse h : w.getEntitiesByClass(AbstractHorse.class)) {
+                track(h);
+            }
+        }
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+
+        if (cfg.debugEnabled) {
+            logger.info("[Debug] IdleMountManager started (radius=" + cfg.aiThrottleRadius +
+                    ", checks/tick=" + cfg.aiThrottleChecksPerTick + ", tracked=" + tracked.size() + ")");
+        }
+    }
+
+    public void stop() {
+        if (task != null) task.cancel();
+        task = null;
+
+        for (UUID id : throttled.toArray(new UUID[0])) {
+            Entity e = Bukkit.getEntity(id);
+            if (e instanceof AbstractHorse h) wake(h);
+        }
+        throttled.clear();
+        tracked.clear();
+        queue.clear();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesLoad(EntitiesLoadEvent e) {
+        if (!cfg.aiThrottleEnabled) return;
+        for (Entity ent : e.getEntities()) {
+            if (ent instanceof AbstractHorse h) track(h);
+        }
+    }
+
+    /**
+     * Wakes throttled mounts before their chunk is saved, so saved worlds never contain mounts
+     * we froze. The ids stay queued and are dropped when the rotation cannot find them.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesUnload(EntitiesUnloadEvent e) {
+        if (throttled.isEmpty()) return;
+        for (Entity ent : e.getEntities()) {
+            if (ent instanceof AbstractHorse h && throttled.contains(h.getUniqueId())) wake(h);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDeath(EntityDeathEvent e) {
+        throttled.remove(e.getEntity().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onEnter(VehicleEnterEvent e) {
+        wakeIfThrottled(e.getVehicle());
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onLeash(PlayerLeashEntityEvent e) {
+        wakeIfThrottled(e.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onInteract(PlayerInteractEntityEvent e) {
+        wakeIfThrottled(e.getRightClicked());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onDamage(EntityDamageEvent e) {
+        wakeIfThrottled(e.getEntity());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onMove(PlayerMoveEvent e) {
+        if (throttled.isEmpty()) return;
+        Location from = e.getFrom();
+        Location to = e.getTo();
+        if ((from.getBlockX() >> 4) == (to.getBlockX() >> 4) && (from.getBlockZ() >> 4) == (to.getBlockZ() >> 4)) return;
+        wakeNear(to);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onTeleport(PlayerTeleportEvent e) {
+        if (!throttled.isEmpty()) wakeNear(e.getTo());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent e) {
+        if (!throttled.isEmpty()) wakeNear(e.getPlayer().getLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChangedWorld(PlayerChangedWorldEvent e) {
+        if (!throttled.isEmpty()) wakeNear(e.getPlayer().getLocation());
+    }
+
+    private void track(AbstractHorse h) {
+        if (!EntityUtil.isHorse(h) && !EntityUtil.isCamel(h)) return;
+        UUID id = h.getUniqueId();
+        if (tracked.add(id)) queue.add(id);
+
+        // Left frozen by an earlier run that did not shut down cleanly; the rotation decides again.
+        if (!throttled.contains(id) && data.read(h).isAiThrottled()) {
+            throttled.add(id);
+        }
+    }
+
+    private void tick() {
+        int n = Math.min(cfg.aiThrottleChecksPerTick, queue.size());
+        if (n == 0) return;
+
+        snapshotPlayers();
+        double r2 = cfg.aiThrottleRadius * cfg.aiThrottleRadius;
+        int slept = 0;
+        int woken = 0;
+
+        for (int i = 0; i < n; i++) {
+            UUID id = queue.poll();
+            Entity ent = Bukkit.getEntity(id);
+            if (!(ent instanceof AbstractHorse h) || !h.isValid()) {
+                tracked.remove(id);
+                throttled.remove(id);
+                continue;
+            }
+            queue.add(id);
+
+            boolean idle = h.isTamed() && h.getPassengers().isEmpty() && !h.isLeashed()
+                    && !h.isInsideVehicle() && !playerWithin(h.getLocation(), r2);
+            boolean frozen = throttled.contains(id);
+
+            // Mounts made unaware by someone else are left alone
+            if (idle && !frozen && h.isAware()) {
+                sleep(h);
+                slept++;
+            } else if (!idle && frozen) {
+                wake(h);
+                woken++;
+            }
+        }
+
+        if (cfg.debugEnabled && cfg.debugPerformanceMountState && (slept > 0 || woken > 0)) {
+            logger.info("[Debug] Idle mounts: +" + slept + " throttled, " + woken + " woken, " +
+                    throttled.size() + "/" + tracked.size() + " throttled");
+        }
+    }
+
+    private void snapshotPlayers() {
+        int count = 0;
+        for (Player p : Bukkit.getOnlinePlayers()) {
+            if (count == playerWorld.length) {
+                playerWorld = Arrays.copyOf(playerWorld, count * 2);
+                playerXyz = Arrays.copyOf(playerXyz, count * 6);
+            }
+            Location loc = p.getLocation();
+            playerWorld[count] = loc.getWorld();
+            playerXyz[count * 3] = loc.getX();
+            playerXyz[count * 3 + 1] = loc.getY();
+            playerXyz[count * 3 + 2] = loc.getZ();
+            count++;
+        }
+        // Drop stale world references past the live range
+        for (int i = count; i < players; i++) playerWorld[i] = null;
+        players = count;
+    }
+
+    private boolean playerWithin(Location loc, double r2) {
+        World w = loc.getWorld();
+        for (int i = 0; i < players; i++) {
+            if (playerWorld[i] != w) continue;
+            double dx = playerXyz[i * 3] - loc.getX();
+            double dy = playerXyz[i * 3 + 1] - loc.getY();
+            double dz = playerXyz[i * 3 + 2] - loc.getZ();
+            if (dx * dx + dy * dy + dz * dz <= r2) return true;
+        }
+        return false;
+    }
+
+    private void wakeNear(Location loc) {
+        if (loc == null || loc.getWorld() == null) return;
+        double r = cfg.aiThrottleRadius + CHUNK_MARGIN;
+        for (AbstractHorse h : loc.getWorld().getNearbyEntitiesByType(AbstractHorse.class, loc, r)) {
+            if (throttled.contains(h.getUniqueId())) wake(h);
+        }
+    }
+
+    private void wakeIfThrottled(Entity ent) {
+        if (!throttled.isEmpty() && ent instanceof AbstractHorse h && throttled.contains(h.getUniqueId())) {
+            wake(h);
+        }
+    }
+
+    private void sleep(AbstractHorse h) {
+        h.setAware(false);
+        throttled.add(h.getUniqueId());
+        mark(h, true);
+    }
+
+    private void wake(AbstractHorse h) {
+        h.setAware(true);
+        throttled.remove(h.getUniqueId());
+        mark(h, false);
+    }
+
+    private void mark(AbstractHorse h, boolean on) {
+        CavalryRecord r = data.read(h);
+        r.setAiThrottled(on);
+        data.write(h, r);
+    }
+}
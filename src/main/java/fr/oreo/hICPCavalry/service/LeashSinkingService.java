@@ -1,45 +1,90 @@
 package fr.oreo.hICPCavalry.service;
 
 import fr.oreo.hICPCavalry.config.CavalryConfig;
+import fr.oreo.hICPCavalry.config.WorldProfile;
+import fr.oreo.hICPCavalry.config.WorldProfiles;
+import fr.oreo.hICPCavalry.core.LeadSinkRules;
+import fr.oreo.hICPCavalry.data.CavalryData;
+import fr.oreo.hICPCavalry.data.CavalryRecord;
+import fr.oreo.hICPCavalry.jfr.LeashSinkTickEvent;
+import fr.oreo.hICPCavalry.journal.CavalryJournal;
+import fr.oreo.hICPCavalry.journal.JournalEvent;
+import fr.oreo.hICPCavalry.perf.AllocationMonitor;
+import fr.oreo.hICPCavalry.perf.HotPath;
+import fr.oreo.hICPCavalry.keys.Keys;
 import fr.oreo.hICPCavalry.util.ArmorPoints;
-import fr.oreo.hICPCavalry.util.EntityUtil;
+import fr.oreo.hICPCavalry.util.ArmorWeights;
+import fr.oreo.hICPCavalry.util.WorldBlockAccess;
+import jdk.jfr.EventType;
 import org.bukkit.Bukkit;
-import org.bukkit.Material;
+import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Horse;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.entity.EntityUnleashEvent;
 import org.bukkit.event.entity.PlayerLeashEntityEvent;
-import org.bukkit.event.player.PlayerUnleashEntityEvent;
+import org.bukkit.event.world.EntitiesLoadEvent;
+import org.bukkit.event.world.EntitiesUnloadEvent;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.util.Vector;
 
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Set;
 import java.util.UUID;
 import java.util.logging.Logger;
 
 public final class LeashSinkingService implements Listener {
 
+    private static final EventType TICK_EVENT = EventType.getEventType(LeashSinkTickEvent.class);
+
     private final Plugin plugin;
     private final Logger logger;
     private final CavalryConfig cfg;
-
+    private final CavalryData data;
+    private final ArmorWeights armorWeights;
+    private final WorldBlockAccess blocks = new WorldBlockAccess();
+    private final CavalryJournal journal;
+    private final AllocationMonitor allocations;
+    private final WorldProfiles profiles;
+
+    /**
+     * Horses currently loaded and marked as leash-sink candidates in their {@link CavalryRecord}.
+     * The mark lives in the PDC, so this set is rebuilt from chunk loads instead of leash events alone.
+     */
     private final Set<UUID> tracked = new HashSet<>();
     private BukkitTask task;
 
-    public LeashSinkingService(Plugin plugin, CavalryConfig cfg) {
+    public LeashSinkingService(Plugin plugin, CavalryConfig cfg, CavalryJournal journal, AllocationMonitor allocations,
+                               WorldProfiles profiles) {
         this.plugin = plugin;
         this.logger = plugin.getLogger();
         this.cfg = cfg;
+        this.journal = journal;
+        this.allocations = allocations;
+        this.profiles = profiles;
+        this.data = new CavalryData(new Keys(plugin));
+        this.armorWeights = new ArmorWeights(plugin, cfg);
     }
 
     public void start() {
         int period = Math.max(1, cfg.leadSinkTaskPeriodTicks);
         task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, period, period);
 
+        // One-time pass over what is already loaded (plugin reload); afterwards chunk events keep us in sync.
+        if (cfg.leadSinkEnabled) {
+            for (World w : Bukkit.getWorlds()) {
+                for (Horse h : w.getEntitiesByClass(Horse.class)) {
+                    trackIfMarked(h);
+                }
+            }
+        }
+
         if (cfg.debugEnabled) {
             logger.info("[Debug] LeashSinkingService started (period=" + period + ")");
         }
@@ -55,54 +100,121 @@ public final class LeashSinkingService implements Listener {
         if (!cfg.leadSinkEnabled) return;
         Entity ent = e.getEntity();
         if (!(ent instanceof Horse)) return;
+        setMarked(ent, true);
         tracked.add(ent.getUniqueId());
     }
 
+    /**
+     * Covers player unleashing as well as broken leads (distance, holder gone).
+     */
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onUnleash(PlayerUnleashEntityEvent e) {
+    public void onUnleash(EntityUnleashEvent e) {
         Entity ent = e.getEntity();
         if (!(ent instanceof Horse)) return;
+        setMarked(ent, false);
         tracked.remove(ent.getUniqueId());
     }
 
-    private void tick() {
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDeath(EntityDeathEvent e) {
+        if (!(e.getEntity() instanceof Horse)) return;
+        tracked.remove(e.getEntity().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesLoad(EntitiesLoadEvent e) {
         if (!cfg.leadSinkEnabled) return;
+        for (Entity ent : e.getEntities()) {
+            if (ent instanceof Horse h) trackIfMarked(h);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesUnload(EntitiesUnloadEvent e) {
         if (tracked.isEmpty()) return;
+        for (Entity ent : e.getEntities()) {
+            if (ent instanceof Horse) tracked.remove(ent.getUniqueId());
+        }
+    }
+
+    private void setMarked(Entity ent, boolean marked) {
+        CavalryRecord r = data.read(ent);
+        r.setLeashSink(marked);
+        data.write(ent, r);
+    }
 
-        Set<UUID> snapshot = new HashSet<>(tracked);
+    private void trackIfMarked(Horse h) {
+        if (!data.read(h).isLeashSink()) return;
+        tracked.add(h.getUniqueId());
 
-        for (UUID id : snapshot) {
+        if (cfg.debugEnabled && cfg.debugTraversalWaterChecks) {
+            logger.info("[Debug] Lead sink tracking restored for " + h.getUniqueId());
+        }
+    }
+
+    private void tick() {
+        if (!cfg.leadSinkEnabled) return;
+        if (tracked.isEmpty()) return;
+
+        LeashSinkTickEvent tickEvent = null;
+        if (TICK_EVENT.isEnabled()) {
+            tickEvent = new LeashSinkTickEvent();
+            tickEvent.begin();
+        }
+        long alloc = allocations.begin();
+        int sinking = 0;
+        int checked = 0;
+
+        // Nothing below fires events that change tracked, so it is iterated in place
+        for (Iterator<UUID> it = tracked.iterator(); it.hasNext(); ) {
+            UUID id = it.next();
+            checked++;
             Entity ent = Bukkit.getEntity(id);
             if (!(ent instanceof Horse horse) || !ent.isValid() || ent.isDead()) {
-                tracked.remove(id);
+                it.remove();
                 continue;
             }
 
             if (!horse.getPassengers().isEmpty()) continue;
 
-            if (!horse.isLeashed()) {
-                tracked.remove(id);
-                continue;
-            }
+            // The lead holder is re-attached a tick after chunk load, so a missing leash is not final here;
+            // EntityUnleashEvent clears the mark when the lead is really gone.
+            if (!horse.isLeashed()) continue;
 
-            Material feet = horse.getLocation().getBlock().getType();
-            Material below = horse.getLocation().getBlock().getRelative(0, -1, 0).getType();
-            if (!EntityUtil.isWater(feet) && !EntityUtil.isWater(below)) continue;
+            Location loc = horse.getLocation();
+            blocks.use(horse.getWorld());
+            byte feet = blocks.kind(loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
+            byte below = blocks.kind(loc.getBlockX(), loc.getBlockY() - 1, loc.getBlockZ());
+            if (!LeadSinkRules.inWater(feet, below)) continue;
 
-            int pts = ArmorPoints.getHorseArmorPoints(horse, cfg.horseArmorPoints, cfg.leatherCountsAsZero);
+            WorldProfile profile = profiles.of(horse.getWorld());
+            if (!profile.leadSinkEnabled) continue;
 
-            if (pts < cfg.leadSinkStartHorseArmorPoints) continue;
+            int pts = ArmorPoints.getHorseArmorPoints(horse, profile.horseArmorPoints, profile.leatherCountsAsZero, armorWeights);
 
-            Vector vel = horse.getVelocity();
-            double down = -Math.abs(cfg.leadSinkDownVelocityPerTick);
+            if (!LeadSinkRules.heavyEnough(pts, profile.leadSinkStartHorseArmorPoints)) continue;
 
-            double newY = Math.min(vel.getY(), down);
+            Vector vel = horse.getVelocity();
+            double newY = LeadSinkRules.sinkVelocityY(vel.getY(), profile.leadSinkDownVelocityPerTick);
 
             horse.setVelocity(new Vector(vel.getX(), newY, vel.getZ()));
+            sinking++;
+
+            journal.write(JournalEvent.LEASH_SINK, JournalEvent.MOUNT_HORSE,
+                    loc.getBlockX(), loc.getBlockY(), loc.getBlockZ(),
+                    id, null, (float) newY, pts);
 
             if (cfg.debugEnabled && cfg.debugTraversalWaterChecks) {
                 logger.info("[Debug] Lead sink applied: horsePts=" + pts + ", yVel=" + newY);
             }
         }
+
+        allocations.end(HotPath.LEASH_SINK, alloc, checked);
+
+        if (tickEvent != null && tickEvent.shouldCommit()) {
+            tickEvent.tracked = checked;
+            tickEvent.sinking = sinking;
+            tickEvent.commit();
+        }
     }
 }
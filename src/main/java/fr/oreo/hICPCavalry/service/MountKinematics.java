@@ -0,0 +1,211 @@
+package fr.oreo.hICPCavalry.service;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.vehicle.VehicleExitEvent;
+import org.bukkit.event.world.EntitiesUnloadEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Recent horizontal positions of ridden mounts, for heading, speed and acceleration.
+ *
+ * Each mount keeps a small ring of primitive samples, one per server tick at most;
+ * recording and all queries are allocation free once the mount has a track.
+ * Main thread only.
+ */
+public final class MountKinematics implements Listener {
+
+    private static final int SAMPLES = 8;
+    /** Samples older than this many ticks no longer describe current motion. */
+    private static final int STALE_TICKS = 10;
+
+    private final Map<UUID, Track> tracks = new HashMap<>();
+
+    /**
+     * Records where the mount is this tick. Several samples in one tick keep only the last.
+     */
+    public void record(UUID mount, double x, double z) {
+        Track t = tracks.get(mount);
+        if (t == null) {
+            t = new Track();
+            tracks.put(mount, t);
+        }
+        t.add(Bukkit.getCurrentTick(), x, z);
+    }
+
+    public void forget(UUID mount) {
+        tracks.remove(mount);
+    }
+
+    /**
+     * @return false if the mount has not moved recently enough to have a heading
+     */
+    public boolean hasHeading(UUID mount) {
+        Track t = tracks.get(mount);
+        return t != null && t.fresh() && t.lastLen > 1.0E-3;
+    }
+
+    /** X component of the unit heading of the last step (0 without one). */
+    public double headingX(UUID mount) {
+        Track t = tracks.get(mount);
+        return t == null || t.lastLen <= 1.0E-3 ? 0.0 : t.lastDx / t.lastLen;
+    }
+
+    /** Z component of the unit heading of the last step (0 without one). */
+    public double headingZ(UUID mount) {
+        Track t = tracks.get(mount);
+        return t == null || t.lastLen <= 1.0E-3 ? 0.0 : t.lastDz / t.lastLen;
+    }
+
+    /**
+     * Horizontal path length over the sample window divided by its duration.
+     *
+     * @return blocks per second, 0 when unknown or stale
+     */
+    public double speedBps(UUID mount) {
+        Track t = tracks.get(mount);
+        if (t == null || t.count < 2 || !t.fresh()) return 0.0;
+
+        long span = t.tick[t.newest()] - t.tick[t.oldest()];
+        if (span <= 0) return 0.0;
+
+        double path = 0.0;
+        for (int k = 1; k < t.count; k++) {
+            path += t.step[t.index(k)];
+        }
+        return path / span * 20.0;
+    }
+
+    /**
+     * Change between the first and last step speed of the window.
+     *
+     * @return blocks per second per second, 0 when unknown or stale
+     */
+    public double accelerationBps2(UUID mount) {
+        Track t = tracks.get(mount);
+        if (t == null || t.count < 3 || !t.fresh()) return 0.0;
+
+        int first = t.index(1);
+        int last = t.newest();
+        long span = t.tick[last] - t.tick[first];
+        if (span <= 0) return 0.0;
+
+        double v0 = t.stepSpeed(first);
+        double v1 = t.stepSpeed(last);
+        return (v1 - v0) / (span / 20.0);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onExit(VehicleExitEvent e) {
+        forget(e.getVehicle().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onDeath(EntityDeathEvent e) {
+        forget(e.getEntity().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntitiesUnload(EntitiesUnloadEvent e) {
+        if (tracks.isEmpty()) return;
+        for (Entity ent : e.getEntities()) {
+            tracks.remove(ent.getUniqueId());
+        }
+    }
+
+    /**
+     * Ring of the last {@link #SAMPLES} positions. step[i] is the distance from the sample
+     * before i, and dt[i] the ticks between them.
+     */
+    private static final class Track {
+        final long[] tick = new long[SAMPLES];
+        final double[] x = new double[SAMPLES];
+        final double[] z = new double[SAMPLES];
+        final double[] step = new double[SAMPLES];
+        final int[] dt = new int[SAMPLES];
+        int head = -1;
+        int count;
+
+        double lastDx;
+        double lastDz;
+        double lastLen;
+
+        void add(long now, double nx, double nz) {
+            if (count > 0 && now - tick[head] > STALE_TICKS) {
+                // Long gap (mount stood still or was out of reach): start a new track
+                count = 0;
+                lastLen = 0.0;
+            }
+
+            if (count > 0 && tick[head] == now) {
+                // Same tick: replace the newest sample
+                if (count > 1) {
+                    int prev = index(count - 2);
+                    set(head, prev, now, nx, nz);
+                } else {
+                    x[head] = nx;
+                    z[head] = nz;
+                }
+                return;
+            }
+
+            int prev = head;
+            head = (head + 1) % SAMPLES;
+            if (count < SAMPLES) count++;
+
+            if (count > 1) {
+                set(head, prev, now, nx, nz);
+            } else {
+                tick[head] = now;
+                x[head] = nx;
+                z[head] = nz;
+                step[head] = 0.0;
+                dt[head] = 0;
+            }
+        }
+
+        private void set(int i, int prev, long now, double nx, double nz) {
+            double dx = nx - x[prev];
+            double dz = nz - z[prev];
+            double len = Math.sqrt(dx * dx + dz * dz);
+
+            tick[i] = now;
+            x[i] = nx;
+            z[i] = nz;
+            step[i] = len;
+            dt[i] = (int) (now - tick[prev]);
+
+            lastDx = dx;
+            lastDz = dz;
+            lastLen = len;
+        }
+
+        /** k-th sample from the oldest (0) to the newest (count - 1). */
+        int index(int k) {
+            return (head - (count - 1) + k + SAMPLES) % SAMPLES;
+        }
+
+        int oldest() {
+            return index(0);
+        }
+
+        int newest() {
+            return head;
+        }
+
+        double stepSpeed(int i) {
+            return dt[i] <= 0 ? 0.0 : step[i] / dt[i] * 20.0;
+        }
+
+        boolean fresh() {
+            return count > 0 && Bukkit.getCurrentTick() - tick[head] <= STALE_TICKS;
+        }
+    }
+}
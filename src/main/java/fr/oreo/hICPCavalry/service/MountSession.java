@@ -0,0 +1,50 @@
+package fr.oreo.hICPCavalry.service;
+
+import fr.oreo.hICPCavalry.api.TraversalVerdict;
+import org.bukkit.World;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+
+/**
+ * State kept for a ridden mount between stat refreshes.
+ */
+final class MountSession {
+
+    final LivingEntity mount;
+
+    double speedMult = 1.0;
+    double jumpMult = 1.0;
+
+    // Modifier amounts currently on the mount; NaN forces the first write
+    double speedAmount = Double.NaN;
+    double jumpAmount = Double.NaN;
+
+    long seenTick;
+
+    // Last applied refresh, served by CavalryApi; appliedTick 0 = nothing applied yet
+    Player rider;
+    double baseSpeed;
+    double baseJump;
+    double finalSpeed;
+    double finalJump;
+    int playerPts;
+    int mountPts;
+    int appliedTick;
+    TraversalVerdict traversal = TraversalVerdict.NONE;
+
+    // Adaptive refresh: server tick of the last snapshot, current interval, next due tick
+    int refreshTick;
+    int interval;
+    int dueTick;
+    boolean moving;
+    double lastX = Double.NaN;
+    double lastZ = Double.NaN;
+
+    // World the profile id was resolved for; re-resolved only when the mount changes world
+    World world;
+    int worldId;
+
+    MountSession(LivingEntity mount) {
+        this.mount = mount;
+    }
+}
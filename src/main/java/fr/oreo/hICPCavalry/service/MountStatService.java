@@ -1,12 +1,33 @@
 package fr.oreo.hICPCavalry.service;
 
+import fr.oreo.hICPCavalry.api.CavalryApi;
+import fr.oreo.hICPCavalry.api.MountPenaltyChangeEvent;
+import fr.oreo.hICPCavalry.api.MountStats;
+import fr.oreo.hICPCavalry.api.TraversalVerdict;
 import fr.oreo.hICPCavalry.config.CavalryConfig;
+import fr.oreo.hICPCavalry.config.EnvironmentTable;
+import fr.oreo.hICPCavalry.config.WorldProfile;
+import fr.oreo.hICPCavalry.config.WorldProfiles;
+import fr.oreo.hICPCavalry.data.CavalryData;
+import fr.oreo.hICPCavalry.data.CavalryRecord;
+import fr.oreo.hICPCavalry.jfr.NormalizationEvent;
+import fr.oreo.hICPCavalry.jfr.StatRefreshEvent;
+import fr.oreo.hICPCavalry.journal.CavalryJournal;
+import fr.oreo.hICPCavalry.journal.JournalEvent;
 import fr.oreo.hICPCavalry.keys.Keys;
+import fr.oreo.hICPCavalry.perf.AllocationMonitor;
+import fr.oreo.hICPCavalry.perf.HotPath;
+import fr.oreo.hICPCavalry.registry.MountRegistry;
 import fr.oreo.hICPCavalry.util.ArmorPoints;
+import fr.oreo.hICPCavalry.util.ArmorWeights;
 import fr.oreo.hICPCavalry.util.EntityUtil;
+import fr.oreo.hICPCavalry.util.SeededStats;
+import jdk.jfr.EventType;
 import org.bukkit.Bukkit;
+import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
+import org.bukkit.World;
 import org.bukkit.attribute.Attribute;
 import org.bukkit.attribute.AttributeInstance;
 import org.bukkit.attribute.AttributeModifier;
@@ -15,37 +36,86 @@ import org.bukkit.entity.Entity;
 import org.bukkit.entity.Horse;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
-import org.bukkit.inventory.ItemStack;
-import org.bukkit.persistence.PersistentDataContainer;
-import org.bukkit.persistence.PersistentDataType;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitTask;
 
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 
-public final class MountStatService {
+public final class MountStatService implements CavalryApi {
+
+    private static final EventType NORMALIZATION_EVENT = EventType.getEventType(NormalizationEvent.class);
+    private static final EventType REFRESH_EVENT = EventType.getEventType(StatRefreshEvent.class);
 
     private final Plugin plugin;
     private final Logger logger;
     private final CavalryConfig cfg;
-    private final Keys keys;
+    private final CavalryData data;
+    private final ArmorWeights armorWeights;
     private final NamespacedKey reachKey;
+    private final NamespacedKey speedPenaltyKey;
+    private final NamespacedKey jumpPenaltyKey;
+    private final CavalryJournal journal;
+    private final MountRegistry registry;
+    private final AllocationMonitor allocations;
+    private final WorldProfiles profiles;
+
+    /** Ridden mounts by UUID; entries not seen during a refresh are dropped at its end. */
+    private final Map<UUID, MountSession> sessions = new HashMap<>();
+    private final BiomeSectionCache biomeCache = new BiomeSectionCache();
+    private final RiderHud hud;
+    private long tickCounter;
+    /** Interval multiplier from the server's average tick time, updated every pass. */
+    private double loadFactor = 1.0;
+
+    /**
+     * Refresh runs in three stages: snapshot inputs (main thread), compute penalties
+     * (worker pool, or inline for small batches), apply changed values (main thread, next tick).
+     */
+    private final RefreshBatch batch = new RefreshBatch();
+    private ExecutorService computePool;
+    private CompletableFuture<Void> pendingCompute;
+    private boolean pendingApply;
 
     private BukkitTask task;
 
-    public MountStatService(Plugin plugin, CavalryConfig cfg) {
+    public MountStatService(Plugin plugin, CavalryConfig cfg, CavalryJournal journal, MountRegistry registry,
+                            AllocationMonitor allocations, WorldProfiles profiles) {
         this.plugin = plugin;
         this.logger = plugin.getLogger();
         this.cfg = cfg;
-        this.keys = new Keys(plugin);
+        this.journal = journal;
+        this.registry = registry;
+        this.allocations = allocations;
+        this.profiles = profiles;
+        this.data = new CavalryData(new Keys(plugin));
+        this.armorWeights = new ArmorWeights(plugin, cfg);
         this.reachKey = new NamespacedKey(plugin, "sword_reach");
+        this.speedPenaltyKey = new NamespacedKey(plugin, "mount_speed_penalty");
+        this.jumpPenaltyKey = new NamespacedKey(plugin, "mount_jump_penalty");
+        this.hud = cfg.hudEnabled ? new RiderHud(cfg) : null;
     }
 
     public void start() {
         int period = Math.max(1, cfg.refreshPeriodTicks);
         this.task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, period, period);
 
+        if (cfg.parallelComputeThreads > 0) {
+            AtomicInteger n = new AtomicInteger();
+            computePool = Executors.newFixedThreadPool(cfg.parallelComputeThreads, r -> {
+                Thread t = new Thread(r, "HICP-Cavalry-Compute-" + n.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+
         if (cfg.debugEnabled) {
             logger.info("[Debug] MountStatService started with refresh period: " + period + " ticks");
         }
@@ -53,15 +123,56 @@ public final class MountStatService {
 
     public void stop() {
         if (task != null) task.cancel();
+        if (computePool != null) computePool.shutdownNow();
+        computePool = null;
+        pendingCompute = null;
+        pendingApply = false;
+        batch.clear();
+        biomeCache.clear();
+        if (hud != null) hud.clear();
+
+        // Never leave penalties behind on a mount when the plugin goes away
+        for (MountSession session : sessions.values()) {
+            removePenalties(session.mount);
+        }
+        sessions.clear();
 
         if (cfg.debugEnabled) {
             logger.info("[Debug] MountStatService stopped");
         }
     }
 
+    /**
+     * True when the horse carries the stamp of the currently loaded config.
+     * Horses from older versions (byte flag) or older configs are considered stale.
+     */
+    public boolean isNormalizationCurrent(Horse h) {
+        CavalryRecord r = data.read(h);
+        return r.isNormalized() && r.normalizationStamp() == cfg.normalizationStamp;
+    }
+
+    /**
+     * Normalizes the horse only if its stamp is missing or outdated.
+     *
+     * @return true if the horse was (re)normalized
+     */
+    public boolean normalizeHorseIfStale(Horse h) {
+        if (!cfg.horsesEnabled || h == null) return false;
+        if (isNormalizationCurrent(h)) return false;
+
+        normalizeHorseOnSpawn(h);
+        return true;
+    }
+
     public void normalizeHorseOnSpawn(Horse h) {
         if (!cfg.horsesEnabled || h == null) return;
 
+        NormalizationEvent jfr = null;
+        if (NORMALIZATION_EVENT.isEnabled()) {
+            jfr = new NormalizationEvent();
+            jfr.begin();
+        }
+
         if (cfg.debugEnabled && cfg.debugHorseNormalization) {
             logger.info("[Debug] Normalizing horse: " + h.getUniqueId());
         }
@@ -85,11 +196,13 @@ public final class MountStatService {
             }
         }
 
+        CavalryRecord record = data.read(h);
+        UUID seed = record.seedOr(h.getUniqueId());
+
         AttributeInstance ms = h.getAttribute(Attribute.MOVEMENT_SPEED);
         if (ms != null) {
             double oldSpeed = ms.getBaseValue();
-            double desiredAttr = cfg.horseCapBps / Math.max(1e-6, cfg.speedToBpsFactor);
-            double newSpeed = clamp(desiredAttr, cfg.clampMin, cfg.clampMax);
+            double newSpeed = cfg.horseSeededBaseStats ? SeededStats.baseSpeed(seed, cfg) : cfg.horseNormalizedSpeed;
             ms.setBaseValue(newSpeed);
 
             if (cfg.debugEnabled && cfg.debugHorseStatCalculations) {
@@ -101,8 +214,7 @@ public final class MountStatService {
         AttributeInstance js = h.getAttribute(Attribute.JUMP_STRENGTH);
         if (js != null) {
             double oldJump = js.getBaseValue();
-            double desiredJumpStrength = cfg.horseBaseJumpBlocks / Math.max(1e-6, cfg.jumpStrengthToBlocksFactor);
-            double newJump = Math.max(0.05, desiredJumpStrength);
+            double newJump = cfg.horseSeededBaseStats ? SeededStats.baseJump(seed, cfg) : cfg.horseNormalizedJump;
             js.setBaseValue(newJump);
 
             if (cfg.debugEnabled && cfg.debugHorseStatCalculations) {
@@ -111,11 +223,19 @@ public final class MountStatService {
             }
         }
 
-        if (cfg.horseStoreBasePdc) {
-            storeBaseStatsIfMissing(h);
-        }
+        // Penalties are modifiers now, the attribute base is the base stat; stored copies are obsolete
+        record.clearBaseStats();
+        record.setNormalizationStamp(cfg.normalizationStamp);
+        data.write(h, record);
 
-        h.getPersistentDataContainer().set(keys.HORSE_NORMALIZED, PersistentDataType.BYTE, (byte) 1);
+        registry.update(h);
+
+        if (jfr != null && jfr.shouldCommit()) {
+            jfr.horse = h.getUniqueId().toString();
+            jfr.stamp = cfg.normalizationStamp;
+            jfr.seeded = cfg.horseSeededBaseStats;
+            jfr.commit();
+        }
 
         if (cfg.debugEnabled && cfg.debugHorseNormalization) {
             logger.info("[Debug] Horse normalization complete: " + h.getUniqueId());
@@ -123,7 +243,21 @@ public final class MountStatService {
     }
 
     private void tick() {
+        // With a 1-tick period the previous pass may still be waiting for its apply stage
+        if (pendingApply) applyBatch();
+
+        StatRefreshEvent jfr = null;
+        if (REFRESH_EVENT.isEnabled()) {
+            jfr = new StatRefreshEvent();
+            jfr.begin();
+        }
+
         long startTime = cfg.debugEnabled && cfg.debugPerformanceTickTiming ? System.nanoTime() : 0;
+        long tickId = ++tickCounter;
+        int now = Bukkit.getCurrentTick();
+        int active = 0;
+        batch.clear();
+        if (cfg.adaptiveRefreshEnabled) updateLoadFactor();
 
         for (Player p : Bukkit.getOnlinePlayers()) {
             Entity mount = p.getVehicle();
@@ -148,178 +282,420 @@ public final class MountStatService {
                         " (apply_penalties setting: " + cfg.camelApplyPenalties + ")");
             }
 
-            // Only store base stats if we might modify them
             if (penaltiesAllowed) {
-                if (horse && cfg.horseStoreBasePdc) storeBaseStatsIfMissing(le);
-                if (camel && cfg.camelStoreBasePdc) storeBaseStatsIfMissing(le);
-
-                if (cfg.armorEnabled || cfg.envEnabled) {
-                    applyMountMultipliers(p, le);
+                World world = le.getWorld();
+                MountSession session = sessions.get(le.getUniqueId());
+                int worldId = session != null && session.world == world ? session.worldId : profiles.idOf(world);
+                WorldProfile profile = profiles.get(worldId);
+
+                if (profile.penaltiesEnabled()) {
+                    // New sessions and world changes are always due; others wait for their interval
+                    boolean due = session == null || session.world != world
+                            || !cfg.adaptiveRefreshEnabled || now >= session.dueTick;
+                    if (session == null) {
+                        session = new MountSession(le);
+                        sessions.put(le.getUniqueId(), session);
+                    }
+                    session.world = world;
+                    session.worldId = worldId;
+                    session.seenTick = tickId;
+                    active++;
+
+                    if (due) {
+                        long alloc = allocations.begin();
+                        snapshot(p, le, session, profile, now);
+                        allocations.end(HotPath.STAT_SNAPSHOT, alloc, 1);
+                    } else if (hud != null) {
+                        hud.keep(p, tickId);
+                    }
                 }
             }
 
             // Mounted combat reach: applies while on an allowed mount type
             if (cfg.combatEnabled) {
-                boolean hasSword = isSword(p.getInventory().getItemInMainHand());
+                boolean hasSword = EntityUtil.isSword(p.getInventory().getItemInMainHand(), cfg.onlyVanillaSwords);
                 applySwordReach(p, hasSword);
             } else {
                 applySwordReach(p, false);
             }
         }
 
+        if (sessions.size() > active) {
+            sessions.values().removeIf(s -> {
+                if (s.seenTick == tickId) return false;
+                removePenalties(s.mount);
+                firePenaltyChange(s, null, 1.0, 1.0);
+                return true;
+            });
+        }
+
+        if (batch.size > 0) {
+            pendingCompute = compute(batch.size);
+            pendingApply = true;
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (pendingApply) applyBatch();
+            });
+        } else if (hud != null) {
+            // No apply stage this time, clear the HUD of riders who just dismounted
+            hud.sweep(tickId);
+        }
+
+        if (jfr != null && jfr.shouldCommit()) {
+            jfr.players = Bukkit.getOnlinePlayers().size();
+            jfr.riders = batch.size;
+            jfr.parallel = pendingCompute != null;
+            jfr.commit();
+        }
+
         if (cfg.debugEnabled && cfg.debugPerformanceTickTiming) {
             long elapsed = System.nanoTime() - startTime;
             logger.info("[Debug] Tick execution time: " + (elapsed / 1000000.0) + "ms");
         }
     }
 
-    private void applyMountMultipliers(Player rider, LivingEntity mount) {
-        double baseSpeed = getBaseSpeed(mount);
-        double baseJump = getBaseJump(mount);
-
-        if (baseSpeed <= 0) baseSpeed = readAttributeBase(mount, Attribute.MOVEMENT_SPEED);
-        if (baseJump <= 0) baseJump = readAttributeBase(mount, Attribute.JUMP_STRENGTH);
+    /**
+     * Stage 1: reads everything the penalty math needs into the batch.
+     * The attribute base is the unpenalized stat, since penalties only ever live in modifiers.
+     */
+    private void snapshot(Player rider, LivingEntity mount, MountSession session, WorldProfile profile, int now) {
+        Location loc = mount.getLocation();
+        if (cfg.adaptiveRefreshEnabled) {
+            double dx = loc.getX() - session.lastX;
+            double dz = loc.getZ() - session.lastZ;
+            // NaN on the first refresh counts as moving
+            session.moving = !(dx * dx + dz * dz < cfg.adaptiveStillBlocks * cfg.adaptiveStillBlocks);
+            session.lastX = loc.getX();
+            session.lastZ = loc.getZ();
+            session.refreshTick = now;
+        }
 
-        int playerPts = cfg.debugEnabled && cfg.debugArmorPoints ?
-                ArmorPoints.getPlayerArmorPointsWithDebug(rider, cfg.leatherCountsAsZero, logger, true) :
-                ArmorPoints.getPlayerArmorPoints(rider, cfg.leatherCountsAsZero);
+        double baseSpeed = readAttributeBase(mount, Attribute.MOVEMENT_SPEED);
+        double baseJump = readAttributeBase(mount, Attribute.JUMP_STRENGTH);
 
+        int playerPts = 0;
         int mountPts = 0;
 
-        if (mount instanceof Horse h) {
-            mountPts = cfg.debugEnabled && cfg.debugArmorPoints ?
-                    ArmorPoints.getHorseArmorPointsWithDebug(h, cfg.horseArmorPoints, cfg.leatherCountsAsZero, logger, true) :
-                    ArmorPoints.getHorseArmorPoints(h, cfg.horseArmorPoints, cfg.leatherCountsAsZero);
-        }
+        if (profile.armorEnabled) {
+            playerPts = cfg.debugEnabled && cfg.debugArmorPoints ?
+                    ArmorPoints.getPlayerArmorPointsWithDebug(rider, profile.leatherCountsAsZero, armorWeights, logger, true) :
+                    ArmorPoints.getPlayerArmorPoints(rider, profile.leatherCountsAsZero, armorWeights);
 
-        if (cfg.debugEnabled && cfg.debugArmorPoints) {
-            logger.info("[Debug] Total armor points: " + (playerPts + mountPts));
+            if (mount instanceof Horse h) {
+                mountPts = cfg.debugEnabled && cfg.debugArmorPoints ?
+                        ArmorPoints.getHorseArmorPointsWithDebug(h, profile.horseArmorPoints, profile.leatherCountsAsZero, armorWeights, logger, true) :
+                        ArmorPoints.getHorseArmorPoints(h, profile.horseArmorPoints, profile.leatherCountsAsZero, armorWeights);
+            }
+
+            if (cfg.debugEnabled && cfg.debugArmorPoints) {
+                logger.info("[Debug] Total armor points: " + (playerPts + mountPts));
+            }
         }
 
-        double speedPct = 0.0;
-        double jumpPct = 0.0;
+        int i = batch.add(rider, mount, session, profile);
+        batch.baseSpeed[i] = baseSpeed;
+        batch.baseJump[i] = baseJump;
+        batch.playerPts[i] = playerPts;
+        batch.mountPts[i] = mountPts;
+        if (profile.armorEnabled && playerPts + mountPts > 0) batch.causes[i] |= RiderHud.CAUSE_ARMOR;
+        batch.envPct[i] = profile.envEnabled ? environmentExtraPct(mount, loc, session, profile, i) : 0.0;
+    }
 
-        if (cfg.armorEnabled) {
-            double scaledMountPts = mountPts * cfg.horseArmorPointMultiplier;
-            double totalPts = playerPts + scaledMountPts;
+    /**
+     * Stage 2: penalty math over the whole batch, split across the compute pool when it is large enough.
+     *
+     * @return future to join before applying, or null if computed inline
+     */
+    private CompletableFuture<Void> compute(int n) {
+        if (computePool == null || n < Math.max(1, cfg.parallelComputeMinRiders)) {
+            computeSlice(0, n);
+            return null;
+        }
 
-            double armorSpeedPct = totalPts * cfg.speedPenaltyPerPointPct;
-            double armorJumpPct  = totalPts * cfg.jumpPenaltyPerPointPct;
+        int threads = cfg.parallelComputeThreads;
+        int chunk = (n + threads - 1) / threads;
+        CompletableFuture<?>[] parts = new CompletableFuture<?>[(n + chunk - 1) / chunk];
+        for (int k = 0; k < parts.length; k++) {
+            int from = k * chunk;
+            int to = Math.min(n, from + chunk);
+            parts[k] = CompletableFuture.runAsync(() -> computeSlice(from, to), computePool);
+        }
+        return CompletableFuture.allOf(parts);
+    }
 
-            speedPct += armorSpeedPct;
-            jumpPct += armorJumpPct;
+    private void computeSlice(int from, int to) {
+        long alloc = allocations.begin();
+        batch.compute(from, to, cfg.clampMin, cfg.clampMax);
+        allocations.end(HotPath.STAT_COMPUTE, alloc, to - from);
+    }
 
-            if (cfg.debugEnabled && cfg.debugArmorPenaltyCalculations) {
-                logger.info("[Debug] Armor penalties - Speed: " + armorSpeedPct + "%, Jump: " + armorJumpPct + "%");
+    /**
+     * Stage 3: writes back only the attribute values that actually changed.
+     */
+    private void applyBatch() {
+        pendingApply = false;
+
+        if (pendingCompute != null) {
+            try {
+                pendingCompute.join();
+            } catch (RuntimeException ex) {
+                logger.warning("Mount stat computation failed, skipping this refresh: " + ex.getMessage());
+                batch.clear();
+                return;
+            } finally {
+                pendingCompute = null;
             }
         }
 
-        if (cfg.envEnabled) {
-            double env = environmentExtraPct(mount);
-            speedPct += env;
-            jumpPct += env;
+        long alloc = allocations.begin();
 
-            if (cfg.debugEnabled && cfg.debugEnvironmentPenaltyCalculations && env > 0) {
-                logger.info("[Debug] Environment penalty: " + env + "% (added to both speed and jump)");
+        for (int i = 0; i < batch.size; i++) {
+            LivingEntity mount = batch.mounts[i];
+            if (!mount.isValid()) continue;
+
+            double speedMult = batch.speedMult[i];
+            double jumpMult = batch.jumpMult[i];
+            double finalSpeed = batch.finalSpeed[i];
+            double finalJump = batch.finalJump[i];
+            MountSession session = batch.sessions[i];
+            WorldProfile profile = batch.profiles[i];
+
+            if (cfg.debugEnabled && cfg.debugArmorPenaltyCalculations && profile.armorEnabled) {
+                double totalPts = batch.playerPts[i] + batch.mountPts[i] * profile.horseArmorPointMultiplier;
+                logger.info("[Debug] Armor penalties (" + profile.name + ") - Speed: " + (totalPts * profile.speedPenaltyPerPointPct) +
+                        "%, Jump: " + (totalPts * profile.jumpPenaltyPerPointPct) + "%");
+            }
+
+            if (cfg.debugEnabled && cfg.debugEnvironmentPenaltyCalculations && batch.envPct[i] > 0) {
+                logger.info("[Debug] Environment penalty: " + batch.envPct[i] + "% (added to both speed and jump)");
             }
-        }
 
-        speedPct = Math.min(speedPct, cfg.maxTotalReductionPct);
-        jumpPct = Math.min(jumpPct, cfg.maxTotalReductionPct);
+            if (cfg.debugEnabled && cfg.debugHorseStatCalculations) {
+                logger.info("[Debug] Applying multipliers - Base speed: " + batch.baseSpeed[i] + ", Base jump: " + batch.baseJump[i]);
+                logger.info("[Debug] Final multipliers - Speed: " + speedMult + " (" + batch.speedPct[i] + "% penalty), " +
+                        "Jump: " + jumpMult + " (" + batch.jumpPct[i] + "% penalty)");
+                logger.info("[Debug] Final values - Speed: " + finalSpeed + ", Jump: " + finalJump);
+            }
 
-        double speedMult = 1.0 - (speedPct / 100.0);
-        double jumpMult = 1.0 - (jumpPct / 100.0);
+            boolean changed = batch.speedAmount[i] != session.speedAmount || batch.jumpAmount[i] != session.jumpAmount;
+            if (cfg.adaptiveRefreshEnabled) scheduleNext(session, changed);
 
-        if (speedMult < 0) speedMult = 0;
-        if (jumpMult < 0) jumpMult = 0;
+            if (batch.speedAmount[i] != session.speedAmount) {
+                setPenalty(mount, Attribute.MOVEMENT_SPEED, speedPenaltyKey, batch.speedAmount[i]);
+                session.speedAmount = batch.speedAmount[i];
+            }
+            if (batch.jumpAmount[i] != session.jumpAmount) {
+                setPenalty(mount, Attribute.JUMP_STRENGTH, jumpPenaltyKey, batch.jumpAmount[i]);
+                session.jumpAmount = batch.jumpAmount[i];
+            }
 
-        double finalSpeed = clamp(baseSpeed * speedMult, cfg.clampMin, cfg.clampMax);
-        double finalJump = Math.max(0.05, baseJump * jumpMult);
+            if (hud != null) {
+                hud.show(batch.riders[i], speedMult, jumpMult, batch.causes[i], batch.surface[i], tickCounter);
+            }
 
-        if (cfg.debugEnabled && cfg.debugHorseStatCalculations) {
-            logger.info("[Debug] Applying multipliers - Base speed: " + baseSpeed + ", Base jump: " + baseJump);
-            logger.info("[Debug] Final multipliers - Speed: " + speedMult + " (" + speedPct + "% penalty), " +
-                    "Jump: " + jumpMult + " (" + jumpPct + "% penalty)");
-            logger.info("[Debug] Final values - Speed: " + finalSpeed + ", Jump: " + finalJump);
+            session.rider = batch.riders[i];
+            session.baseSpeed = batch.baseSpeed[i];
+            session.baseJump = batch.baseJump[i];
+            session.finalSpeed = finalSpeed;
+            session.finalJump = finalJump;
+            session.playerPts = batch.playerPts[i];
+            session.mountPts = batch.mountPts[i];
+            session.appliedTick = Bukkit.getCurrentTick();
+
+            if (Math.abs(speedMult - session.speedMult) > 1e-4 || Math.abs(jumpMult - session.jumpMult) > 1e-4) {
+                firePenaltyChange(session, batch.riders[i], speedMult, jumpMult);
+                session.speedMult = speedMult;
+                session.jumpMult = jumpMult;
+
+                if (journal.isOpen()) {
+                    Location loc = mount.getLocation();
+                    journal.write(JournalEvent.PENALTY_CHANGE,
+                            mount instanceof Horse ? JournalEvent.MOUNT_HORSE : JournalEvent.MOUNT_CAMEL,
+                            loc.getBlockX(), loc.getBlockY(), loc.getBlockZ(),
+                            mount.getUniqueId(), batch.riders[i].getUniqueId(), (float) speedMult, (float) jumpMult);
+                }
+            }
         }
 
-        setAttributeBase(mount, Attribute.MOVEMENT_SPEED, finalSpeed);
-        setAttributeBase(mount, Attribute.JUMP_STRENGTH, finalJump);
+        if (hud != null) hud.sweep(tickCounter);
+
+        allocations.end(HotPath.STAT_APPLY, alloc, batch.size);
+        batch.clear();
+    }
+
+    /**
+     * A changed result resets the rider to the shortest interval; an unchanged one widens it,
+     * doubling while standing still and one period at a time while moving.
+     */
+    private void scheduleNext(MountSession session, boolean changed) {
+        int base = Math.max(1, cfg.refreshPeriodTicks);
+        int next;
+        if (changed || session.interval == 0) next = base;
+        else if (session.moving) next = Math.min(session.interval + base, cfg.adaptiveMaxMovingTicks);
+        else next = Math.min(session.interval * 2, cfg.adaptiveMaxIdleTicks);
+
+        session.interval = Math.max(base, next);
+        session.dueTick = session.refreshTick + (int) Math.round(session.interval * loadFactor);
+    }
+
+    private void updateLoadFactor() {
+        double factor = Bukkit.getAverageTickTime() > cfg.adaptiveMsptThreshold ? cfg.adaptiveOverloadMultiplier : 1.0;
+        if (factor == loadFactor) return;
+        loadFactor = factor;
+
+        if (cfg.debugEnabled && cfg.debugPerformanceMountState) {
+            logger.info("[Debug] Stat refresh intervals x" + factor + " (average tick " +
+                    String.format(Locale.ROOT, "%.1f", Bukkit.getAverageTickTime()) + " ms)");
+        }
     }
 
-    private double environmentExtraPct(LivingEntity mount) {
-        boolean storm = EntityUtil.isStorm(mount.getWorld());
-        Material below = mount.getLocation().subtract(0, 0.1, 0).getBlock().getType();
+    /**
+     * Surface rules are one table load by block ordinal; biome and temperature rules come
+     * from the per-section cache, so neither cost grows with the number of modifiers.
+     */
+    private double environmentExtraPct(LivingEntity mount, Location loc, MountSession session, WorldProfile profile, int i) {
+        World world = mount.getWorld();
+        boolean storm = EntityUtil.isStorm(world);
+        int kind = mount instanceof Horse ? EnvironmentTable.HORSE : EnvironmentTable.CAMEL;
+        int slot = EnvironmentTable.slot(kind, storm);
+
+        int x = loc.getBlockX();
+        int y = Location.locToBlock(loc.getY() - 0.1);
+        int z = loc.getBlockZ();
+        Material below = world.getType(x, y, z);
 
         if (cfg.debugEnabled && cfg.debugEnvironmentWeatherChecks) {
             logger.info("[Debug] Environment check - Storm: " + storm + ", Block below: " + below);
         }
 
-        double extra = 0.0;
+        EnvironmentTable table = profile.environment;
+        double surface = table.surfacePct(slot, below);
+        double biome = table.hasBiomeRules() ? biomeCache.pct(session.worldId, world, table, x, y, z, slot) : 0.0;
 
-        if (cfg.envMud && EntityUtil.isMud(below)) {
-            if (!cfg.requireStormMud || storm) {
-                extra += cfg.envExtraReductionPct;
-
-                if (cfg.debugEnabled && cfg.debugEnvironmentBlockDetection) {
-                    logger.info("[Debug] Mud detected - Adding " + cfg.envExtraReductionPct + "% penalty");
-                }
+        if (hud != null) {
+            int causes = 0;
+            if (surface != 0.0) {
+                causes |= RiderHud.CAUSE_SURFACE;
+                if (surface < 0.0) causes |= RiderHud.CAUSE_BONUS;
+                batch.surface[i] = below;
+            }
+            if (biome != 0.0) causes |= RiderHud.CAUSE_BIOME;
+            if (storm && (causes & (RiderHud.CAUSE_SURFACE | RiderHud.CAUSE_BIOME)) != 0) {
+                // Only name the storm if it changed the result
+                int calm = EnvironmentTable.slot(kind, false);
+                double calmBiome = table.hasBiomeRules() ? biomeCache.pct(session.worldId, world, table, x, y, z, calm) : 0.0;
+                if (table.surfacePct(calm, below) != surface || calmBiome != biome) causes |= RiderHud.CAUSE_STORM;
             }
+            batch.causes[i] |= causes;
         }
 
-        if (cfg.envMuddyRoots && EntityUtil.isMuddyMangroveRoots(below)) {
-            if (!cfg.requireStormMud || storm) {
-                extra += cfg.envExtraReductionPct;
-
-                if (cfg.debugEnabled && cfg.debugEnvironmentBlockDetection) {
-                    logger.info("[Debug] Muddy mangrove roots detected - Adding " + cfg.envExtraReductionPct + "% penalty");
-                }
-            }
+        if (cfg.debugEnabled && cfg.debugEnvironmentBlockDetection && (surface != 0.0 || biome != 0.0)) {
+            logger.info("[Debug] Environment modifiers - surface " + below + ": " + surface + "%, biome/temperature: " + biome + "%");
         }
 
-        if (cfg.envSnow && EntityUtil.isSnowyBlock(below)) {
-            if (!cfg.requireStormSnow || storm) {
-                extra += cfg.envExtraReductionPct;
+        return surface + biome;
+    }
 
-                if (cfg.debugEnabled && cfg.debugEnvironmentBlockDetection) {
-                    logger.info("[Debug] Snow detected - Adding " + cfg.envExtraReductionPct + "% penalty");
-                }
-            }
-        }
+    /**
+     * Called when a rider leaves a mount: drops its penalty modifiers and session.
+     */
+    public void endSession(Entity mount) {
+        MountSession session = sessions.remove(mount.getUniqueId());
+        if (session == null) return;
+        removePenalties(session.mount);
+        firePenaltyChange(session, session.rider, 1.0, 1.0);
+    }
 
-        return extra;
+    /**
+     * Remembers the outcome of a traversal check for {@link CavalryApi}. Mounts without a
+     * session (not penalized in their world) are not tracked.
+     */
+    public void recordTraversal(Entity mount, TraversalVerdict verdict) {
+        MountSession session = sessions.get(mount.getUniqueId());
+        if (session != null) session.traversal = verdict;
     }
 
-    private void storeBaseStatsIfMissing(LivingEntity e) {
-        PersistentDataContainer pdc = e.getPersistentDataContainer();
+    @Override
+    public MountStats stats(UUID mount) {
+        MountSession s = sessions.get(mount);
+        if (s == null || s.appliedTick == 0) return null;
+
+        return new MountStats(
+                mount,
+                s.rider == null ? null : s.rider.getUniqueId(),
+                s.baseSpeed,
+                s.baseJump,
+                s.speedMult,
+                s.jumpMult,
+                s.finalSpeed,
+                s.finalJump,
+                s.playerPts,
+                s.mountPts,
+                s.traversal,
+                s.appliedTick
+        );
+    }
 
-        if (!pdc.has(keys.BASE_SPEED, PersistentDataType.DOUBLE)) {
-            double speed = readAttributeBase(e, Attribute.MOVEMENT_SPEED);
-            pdc.set(keys.BASE_SPEED, PersistentDataType.DOUBLE, speed);
+    @Override
+    public MountStats statsOfRider(UUID player) {
+        Player p = Bukkit.getPlayer(player);
+        Entity v = p == null ? null : p.getVehicle();
+        return v == null ? null : stats(v.getUniqueId());
+    }
 
-            if (cfg.debugEnabled && cfg.debugHorsePdcStorage) {
-                logger.info("[Debug] Stored base speed in PDC: " + speed + " for " + e.getUniqueId());
-            }
-        }
+    /**
+     * Only builds the event when a plugin listens to it.
+     */
+    private void firePenaltyChange(MountSession session, Player rider, double speedMult, double jumpMult) {
+        if (MountPenaltyChangeEvent.getHandlerList().getRegisteredListeners().length == 0) return;
+        if (session.appliedTick == 0) return;
+        if (Math.abs(speedMult - session.speedMult) <= 1e-4 && Math.abs(jumpMult - session.jumpMult) <= 1e-4) return;
 
-        if (!pdc.has(keys.BASE_JUMP, PersistentDataType.DOUBLE)) {
-            double jump = readAttributeBase(e, Attribute.JUMP_STRENGTH);
-            pdc.set(keys.BASE_JUMP, PersistentDataType.DOUBLE, jump);
+        Bukkit.getPluginManager().callEvent(new MountPenaltyChangeEvent(session.mount, rider,
+                session.speedMult, session.jumpMult, speedMult, jumpMult));
+    }
 
-            if (cfg.debugEnabled && cfg.debugHorsePdcStorage) {
-                logger.info("[Debug] Stored base jump in PDC: " + jump + " for " + e.getUniqueId());
-            }
+    /**
+     * Older versions wrote penalized values into the attribute base and kept the real
+     * base in the PDC. Puts the real base back once, then forgets the stored copy.
+     */
+    public void restoreLegacyBase(LivingEntity mount) {
+        CavalryRecord record = data.read(mount);
+        if (!record.hasBaseSpeed() && !record.hasBaseJump()) return;
+
+        if (record.hasBaseSpeed()) setAttributeBase(mount, Attribute.MOVEMENT_SPEED, record.baseSpeed());
+        if (record.hasBaseJump()) setAttributeBase(mount, Attribute.JUMP_STRENGTH, record.baseJump());
+        record.clearBaseStats();
+        data.write(mount, record);
+
+        if (cfg.debugEnabled && cfg.debugHorsePdcStorage) {
+            logger.info("[Debug] Restored legacy base stats from PDC for " + mount.getUniqueId());
         }
     }
 
-    private double getBaseSpeed(LivingEntity e) {
-        Double v = e.getPersistentDataContainer().get(keys.BASE_SPEED, PersistentDataType.DOUBLE);
-        return v == null ? -1 : v;
+    /**
+     * Keyed MULTIPLY_SCALAR_1 modifier: value = base * (1 + amount). Zero removes it.
+     * Transient, so a crash never persists a penalty into the entity's saved attributes.
+     */
+    private void setPenalty(LivingEntity mount, Attribute a, NamespacedKey key, double amount) {
+        AttributeInstance ai = mount.getAttribute(a);
+        if (ai == null) return;
+
+        ai.removeModifier(key);
+        if (amount != 0.0) {
+            ai.addTransientModifier(new AttributeModifier(key, amount, AttributeModifier.Operation.MULTIPLY_SCALAR_1));
+        }
+
+        if (cfg.debugEnabled && cfg.debugCombatModifierChanges) {
+            logger.info("[Debug] Penalty modifier " + key.getKey() + " = " + amount + " on " + mount.getUniqueId());
+        }
     }
 
-    private double getBaseJump(LivingEntity e) {
-        Double v = e.getPersistentDataContainer().get(keys.BASE_JUMP, PersistentDataType.DOUBLE);
-        return v == null ? -1 : v;
+    private void removePenalties(LivingEntity mount) {
+        if (mount == null || !mount.isValid()) return;
+        AttributeInstance ms = mount.getAttribute(Attribute.MOVEMENT_SPEED);
+        if (ms != null) ms.removeModifier(speedPenaltyKey);
+        AttributeInstance js = mount.getAttribute(Attribute.JUMP_STRENGTH);
+        if (js != null) js.removeModifier(jumpPenaltyKey);
     }
 
     private static double readAttributeBase(LivingEntity e, Attribute a) {
@@ -366,21 +742,4 @@ public final class MountStatService {
             logger.info("[Debug] Reach modifier removed (no sword held) for player " + p.getName());
         }
     }
-
-    private boolean isSword(ItemStack it) {
-        if (it == null) return false;
-        Material m = it.getType();
-        String n = m.name().toLowerCase(Locale.ROOT);
-        if (!n.endsWith("_sword")) return false;
-        if (!cfg.onlyVanillaSwords) return true;
-
-        return switch (m) {
-            case WOODEN_SWORD, STONE_SWORD, IRON_SWORD, GOLDEN_SWORD, DIAMOND_SWORD, NETHERITE_SWORD -> true;
-            default -> false;
-        };
-    }
-
-    private static double clamp(double v, double min, double max) {
-        return Math.max(min, Math.min(max, v));
-    }
 }
\ No newline at end of file
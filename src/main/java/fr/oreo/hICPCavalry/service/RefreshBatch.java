@@ -0,0 +1,144 @@
+package fr.oreo.hICPCavalry.service;
+
+import fr.oreo.hICPCavalry.config.WorldProfile;
+import fr.oreo.hICPCavalry.core.PenaltyRules;
+import fr.oreo.hICPCavalry.jfr.RiderPenaltyEvent;
+import jdk.jfr.EventType;
+import org.bukkit.Material;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+
+import java.util.Arrays;
+
+/**
+ * One stat refresh pass in primitive form.
+ *
+ * Snapshot (main thread) fills the inputs, {@link #compute} (any thread, no Bukkit calls)
+ * fills the outputs, and the apply stage (main thread) writes them back to the mounts.
+ * Arrays are reused between passes and only grow.
+ */
+final class RefreshBatch {
+
+    /** Checked before creating events, so {@link #compute} allocates nothing while JFR does not record them. */
+    private static final EventType PENALTY_EVENT = EventType.getEventType(RiderPenaltyEvent.class);
+
+    int size;
+
+    LivingEntity[] mounts = new LivingEntity[16];
+    Player[] riders = new Player[16];
+    MountSession[] sessions = new MountSession[16];
+    WorldProfile[] profiles = new WorldProfile[16];
+
+    // inputs
+    double[] baseSpeed = new double[16];
+    double[] baseJump = new double[16];
+    int[] playerPts = new int[16];
+    int[] mountPts = new int[16];
+    double[] envPct = new double[16];
+    // RiderHud.CAUSE_* bits and the penalizing surface, for display only
+    int[] causes = new int[16];
+    Material[] surface = new Material[16];
+
+    // outputs
+    double[] speedPct = new double[16];
+    double[] jumpPct = new double[16];
+    double[] speedMult = new double[16];
+    double[] jumpMult = new double[16];
+    double[] finalSpeed = new double[16];
+    double[] finalJump = new double[16];
+    double[] speedAmount = new double[16];
+    double[] jumpAmount = new double[16];
+
+    void clear() {
+        // drop entity references so unloaded mounts are not kept alive
+        Arrays.fill(mounts, 0, size, null);
+        Arrays.fill(riders, 0, size, null);
+        Arrays.fill(sessions, 0, size, null);
+        Arrays.fill(profiles, 0, size, null);
+        Arrays.fill(surface, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * @return index of the new slot
+     */
+    int add(Player rider, LivingEntity mount, MountSession session, WorldProfile profile) {
+        if (size == mounts.length) grow(size * 2);
+        int i = size++;
+        riders[i] = rider;
+        mounts[i] = mount;
+        sessions[i] = session;
+        profiles[i] = profile;
+        causes[i] = 0;
+        surface[i] = null;
+        return i;
+    }
+
+    /**
+     * Pure penalty math for slots [from, to), using each slot's world profile.
+     */
+    void compute(int from, int to, double clampMin, double clampMax) {
+        for (int i = from; i < to; i++) {
+            WorldProfile profile = profiles[i];
+            RiderPenaltyEvent jfr = null;
+            if (PENALTY_EVENT.isEnabled()) {
+                jfr = new RiderPenaltyEvent();
+                jfr.begin();
+            }
+
+            double sPct = PenaltyRules.reductionPct(profile.armorEnabled, playerPts[i], mountPts[i],
+                    profile.horseArmorPointMultiplier, profile.speedPenaltyPerPointPct,
+                    profile.envEnabled, envPct[i], profile.maxTotalReductionPct);
+            double jPct = PenaltyRules.reductionPct(profile.armorEnabled, playerPts[i], mountPts[i],
+                    profile.horseArmorPointMultiplier, profile.jumpPenaltyPerPointPct,
+                    profile.envEnabled, envPct[i], profile.maxTotalReductionPct);
+
+            double sMult = PenaltyRules.multiplier(sPct);
+            double jMult = PenaltyRules.multiplier(jPct);
+
+            speedPct[i] = sPct;
+            jumpPct[i] = jPct;
+            speedMult[i] = sMult;
+            jumpMult[i] = jMult;
+            finalSpeed[i] = PenaltyRules.finalSpeed(baseSpeed[i], sMult, clampMin, clampMax);
+            finalJump[i] = PenaltyRules.finalJump(baseJump[i], jMult);
+
+            // Same targets as modifier amounts relative to the untouched base
+            speedAmount[i] = PenaltyRules.modifierAmount(baseSpeed[i], finalSpeed[i]);
+            jumpAmount[i] = PenaltyRules.modifierAmount(baseJump[i], finalJump[i]);
+
+            if (jfr != null && jfr.shouldCommit()) {
+                // UUID is immutable, safe to read off the main thread
+                jfr.mount = mounts[i].getUniqueId().toString();
+                jfr.playerPoints = playerPts[i];
+                jfr.mountPoints = mountPts[i];
+                jfr.environmentPct = envPct[i];
+                jfr.speedMultiplier = sMult;
+                jfr.jumpMultiplier = jMult;
+                jfr.commit();
+            }
+        }
+    }
+
+    private void grow(int cap) {
+        mounts = Arrays.copyOf(mounts, cap);
+        riders = Arrays.copyOf(riders, cap);
+        sessions = Arrays.copyOf(sessions, cap);
+        profiles = Arrays.copyOf(profiles, cap);
+        baseSpeed = Arrays.copyOf(baseSpeed, cap);
+        baseJump = Arrays.copyOf(baseJump, cap);
+        playerPts = Arrays.copyOf(playerPts, cap);
+        mountPts = Arrays.copyOf(mountPts, cap);
+        envPct = Arrays.copyOf(envPct, cap);
+        causes = Arrays.copyOf(causes, cap);
+        surface = Arrays.copyOf(surface, cap);
+        speedPct = Arrays.copyOf(speedPct, cap);
+        jumpPct = Arrays.copyOf(jumpPct, cap);
+        speedMult = Arrays.copyOf(speedMult, cap);
+        jumpMult = Arrays.copyOf(jumpMult, cap);
+        finalSpeed = Arrays.copyOf(finalSpeed, cap);
+        finalJump = Arrays.copyOf(finalJump, cap);
+        speedAmount = Arrays.copyOf(speedAmount, cap);
+        jumpAmount = Arrays.copyOf(jumpAmount, cap);
+    }
+}
@@ -0,0 +1,153 @@
+package fr.oreo.hICPCavalry.service;
+
+import fr.oreo.hICPCavalry.config.CavalryConfig;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.boss.BarColor;
+import org.bukkit.boss.BarStyle;
+import org.bukkit.boss.BossBar;
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Shows riders their current speed/jump multipliers and why they are penalized.
+ *
+ * Each rider's display is reduced to a numeric key (rounded percents, cause bits, surface);
+ * text is only built and sent when that key changes, so steady riding sends nothing.
+ * Fed by the apply stage of {@link MountStatService}. Main thread only.
+ */
+final class RiderHud {
+
+    static final int CAUSE_ARMOR = 1;
+    static final int CAUSE_SURFACE = 1 << 1;
+    static final int CAUSE_BIOME = 1 << 2;
+    static final int CAUSE_STORM = 1 << 3;
+    static final int CAUSE_BONUS = 1 << 4;
+
+    /** Key of a rider with nothing to show. */
+    private static final long HIDDEN = 0L;
+
+    private final CavalryConfig cfg;
+    private final Map<UUID, State> states = new HashMap<>();
+
+    private static final class State {
+        long key = -1L;
+        long seenTick;
+        BossBar bar;
+    }
+
+    RiderHud(CavalryConfig cfg) {
+        this.cfg = cfg;
+    }
+
+    void show(Player rider, double speedMult, double jumpMult, int causes, Material surface, long tick) {
+        State st = states.get(rider.getUniqueId());
+        if (st == null) {
+            st = new State();
+            states.put(rider.getUniqueId(), st);
+        }
+        st.seenTick = tick;
+
+        int speedPct = (int) Math.round(speedMult * 100.0);
+        int jumpPct = (int) Math.round(jumpMult * 100.0);
+        boolean penalized = speedPct != 100 || jumpPct != 100;
+
+        long key;
+        if (!penalized) {
+            key = HIDDEN;
+        } else {
+            int surfaceId = (causes & CAUSE_SURFACE) != 0 && surface != null ? surface.ordinal() + 1 : 0;
+            key = (1L << 62) | ((long) (speedPct & 0x3FF) << 44) | ((long) (jumpPct & 0x3FF) << 34)
+                    | ((long) (causes & 0xFF) << 26) | (surfaceId & 0x3FFFFFF);
+        }
+
+        if (key == st.key) return;
+        st.key = key;
+
+        if (key == HIDDEN) {
+            hide(rider, st);
+            return;
+        }
+
+        String text = "§7Speed §f" + speedPct + "% §8| §7Jump §f" + jumpPct + "%" + causeText(causes, surface);
+        if (cfg.hudBossBar) {
+            if (st.bar == null) {
+                st.bar = Bukkit.createBossBar(text, BarColor.YELLOW, BarStyle.SOLID);
+                st.bar.addPlayer(rider);
+            } else {
+                st.bar.setTitle(text);
+            }
+            st.bar.setProgress(Math.max(0.0, Math.min(1.0, speedMult)));
+            st.bar.setColor(speedMult >= 1.0 ? BarColor.GREEN : speedMult >= 0.75 ? BarColor.YELLOW : BarColor.RED);
+        } else {
+            rider.sendActionBar(text);
+        }
+    }
+
+    /**
+     * Keeps the current display of a rider whose refresh was skipped this time.
+     */
+    void keep(Player rider, long tick) {
+        State st = states.get(rider.getUniqueId());
+        if (st != null) st.seenTick = tick;
+    }
+
+    /**
+     * Drops riders that were not shown during the refresh of {@code tick} (dismounted, left, or
+     * no longer penalized in their world).
+     */
+    void sweep(long tick) {
+        if (states.isEmpty()) return;
+
+        Iterator<Map.Entry<UUID, State>> it = states.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<UUID, State> e = it.next();
+            State st = e.getValue();
+            if (st.seenTick == tick) continue;
+
+            Player p = Bukkit.getPlayer(e.getKey());
+            if (p != null && st.key != HIDDEN) hide(p, st);
+            else if (st.bar != null) st.bar.removeAll();
+            it.remove();
+        }
+    }
+
+    void clear() {
+        for (State st : states.values()) {
+            if (st.bar != null) st.bar.removeAll();
+        }
+        states.clear();
+    }
+
+    private void hide(Player rider, State st) {
+        if (st.bar != null) {
+            st.bar.removeAll();
+            st.bar = null;
+        } else if (!cfg.hudBossBar) {
+            rider.sendActionBar("");
+        }
+    }
+
+    private static String causeText(int causes, Material surface) {
+        if (causes == 0) return "";
+
+        StringBuilder sb = new StringBuilder(" §8|");
+        if ((causes & CAUSE_ARMOR) != 0) sb.append(" §6Armor");
+        if ((causes & CAUSE_SURFACE) != 0 && surface != null) {
+            sb.append((causes & CAUSE_BONUS) != 0 ? " §a" : " §c").append(pretty(surface));
+        }
+        if ((causes & CAUSE_BIOME) != 0) sb.append(" §2Biome");
+        if ((causes & CAUSE_STORM) != 0) sb.append(" §9Storm");
+        return sb.toString();
+    }
+
+    private static String pretty(Material m) {
+        String n = m.name().toLowerCase(Locale.ROOT).replace('_', ' ');
+        return Character.toUpperCase(n.charAt(0)) + n.substring(1);
+    }
+}
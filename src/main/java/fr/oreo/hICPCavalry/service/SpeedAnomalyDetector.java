@@ -0,0 +1,176 @@
+package fr.oreo.hICPCavalry.service;
+
+import fr.oreo.hICPCavalry.config.CavalryConfig;
+import fr.oreo.hICPCavalry.journal.CavalryJournal;
+import fr.oreo.hICPCavalry.journal.JournalEvent;
+import fr.oreo.hICPCavalry.util.EntityUtil;
+import org.bukkit.Location;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * Flags riders whose mount goes faster than its movement speed attribute allows.
+ *
+ * Mounted moves are summed per tick into a per-rider ring of speed samples; the running
+ * window sum gives the mean speed in constant time per sample. The window starts over when
+ * the rider changes mounts. A rider is flagged when that mean stays above the expected top
+ * speed plus tolerance for {@code sustain_ticks}.
+ * The expected speed is the mount's current movement speed attribute value, so our penalties,
+ * potions and other plugins' modifiers all count; it is re-read once per window. Main thread only.
+ */
+public final class SpeedAnomalyDetector {
+
+    /** A step this long in one move is a teleport, not riding. */
+    private static final double TELEPORT_BLOCKS = 8.0;
+
+    private final Logger logger;
+    private final CavalryConfig cfg;
+    private final CavalryJournal journal;
+
+    private final Map<UUID, Window> windows = new HashMap<>();
+
+    private static final class Window {
+        final double[] samples;
+        UUID mount;
+        int head;
+        int count;
+        double sum;
+
+        // Distance moved during bucketTick, and the tick of the bucket before it
+        int bucketTick;
+        int prevTick;
+        double bucket;
+
+        double expectedBps;
+        int expectedAge;
+        int streak;
+        long lastFlagMillis;
+
+        Window(int size) {
+            samples = new double[size];
+        }
+
+        void reset() {
+            head = 0;
+            count = 0;
+            sum = 0.0;
+            bucketTick = 0;
+            prevTick = 0;
+            bucket = 0.0;
+            expectedAge = 0;
+            streak = 0;
+        }
+    }
+
+    public SpeedAnomalyDetector(Plugin plugin, CavalryConfig cfg, CavalryJournal journal) {
+        this.logger = plugin.getLogger();
+        this.cfg = cfg;
+        this.journal = journal;
+    }
+
+    /**
+     * Adds one mounted move of {@code stepBlocks} horizontal blocks made during {@code tick}.
+     */
+    public void sample(Player rider, LivingEntity mount, double stepBlocks, int tick) {
+        if (!cfg.anomalyEnabled) return;
+
+        Window w = windows.get(rider.getUniqueId());
+        if (w == null) {
+            w = new Window(cfg.anomalyWindowTicks);
+            windows.put(rider.getUniqueId(), w);
+        }
+
+        if (!mount.getUniqueId().equals(w.mount)) {
+            // Another mount, another top speed
+            w.reset();
+            w.mount = mount.getUniqueId();
+        }
+        if (stepBlocks > TELEPORT_BLOCKS) {
+            w.reset();
+            return;
+        }
+
+        if (tick != w.bucketTick) {
+            if (w.bucketTick != 0) {
+                if (w.prevTick != 0) {
+                    int dt = Math.max(1, w.bucketTick - w.prevTick);
+                    push(w, rider, mount, w.bucket * 20.0 / dt);
+                }
+                w.prevTick = w.bucketTick;
+            }
+            w.bucketTick = tick;
+            w.bucket = 0.0;
+        }
+        w.bucket += stepBlocks;
+    }
+
+    public void forget(UUID rider) {
+        windows.remove(rider);
+    }
+
+    private void push(Window w, Player rider, LivingEntity mount, double bps) {
+        int size = w.samples.length;
+        if (w.count == size) w.sum -= w.samples[w.head];
+        else w.count++;
+        w.samples[w.head] = bps;
+        w.sum += bps;
+        w.head = (w.head + 1) % size;
+
+        if (w.count < size) return;
+        // Add/subtract pairs drift over a long ride; recompute the sum once per lap of the ring
+        if (w.head == 0) {
+            double sum = 0.0;
+            for (double v : w.samples) sum += v;
+            w.sum = sum;
+        }
+
+        if (--w.expectedAge <= 0) {
+            w.expectedBps = expectedBps(mount);
+            w.expectedAge = size;
+        }
+        if (Double.isNaN(w.expectedBps)) return;
+
+        double mean = w.sum / size;
+        double limit = w.expectedBps * (1.0 + cfg.anomalyTolerancePct / 100.0);
+        if (mean <= limit) {
+            w.streak = 0;
+            return;
+        }
+
+        if (++w.streak < cfg.anomalySustainTicks) return;
+
+        long now = System.currentTimeMillis();
+        if (now - w.lastFlagMillis < cfg.anomalyCooldownSeconds * 1000L) return;
+        w.lastFlagMillis = now;
+        flag(rider, mount, mean, w.expectedBps);
+    }
+
+    private double expectedBps(LivingEntity mount) {
+        AttributeInstance ai = mount.getAttribute(Attribute.MOVEMENT_SPEED);
+        return ai == null ? Double.NaN : ai.getValue() * cfg.speedToBpsFactor;
+    }
+
+    private void flag(Player rider, LivingEntity mount, double meanBps, double expectedBps) {
+        logger.warning(String.format(Locale.ROOT,
+                "[Anomaly] %s on %s %s: %.2f bps over %d ticks, expected at most %.2f bps (+%.0f%%)",
+                rider.getName(), mount.getType().name().toLowerCase(Locale.ROOT), mount.getUniqueId(),
+                meanBps, cfg.anomalyWindowTicks, expectedBps, cfg.anomalyTolerancePct));
+
+        if (journal.isOpen()) {
+            Location loc = mount.getLocation();
+            journal.write(JournalEvent.SPEED_ANOMALY,
+                    EntityUtil.isHorse(mount) ? JournalEvent.MOUNT_HORSE : JournalEvent.MOUNT_CAMEL,
+                    loc.getBlockX(), loc.getBlockY(), loc.getBlockZ(),
+                    mount.getUniqueId(), rider.getUniqueId(), (float) meanBps, (float) expectedBps);
+        }
+    }
+}
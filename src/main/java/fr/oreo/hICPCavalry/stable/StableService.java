@@ -0,0 +1,305 @@
+package fr.oreo.hICPCavalry.stable;
+
+import fr.oreo.hICPCavalry.config.CavalryConfig;
+import fr.oreo.hICPCavalry.config.StableZone;
+import fr.oreo.hICPCavalry.data.CavalryData;
+import fr.oreo.hICPCavalry.data.CavalryRecord;
+import fr.oreo.hICPCavalry.keys.Keys;
+import fr.oreo.hICPCavalry.registry.MountRegistry;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.entity.Horse;
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.event.player.PlayerInteractEntityEvent;
+import org.bukkit.event.vehicle.VehicleEnterEvent;
+import org.bukkit.inventory.HorseInventory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+/**
+ * Turns idle tamed horses into {@link StabledHorse} records and back.
+ *
+ * A periodic scan looks at loaded horses inside the configured zones; a horse that stays
+ * there unridden and unleashed for the idle time is stored and removed from the world.
+ * Players can also stable the horse they ride and take stabled horses out by command.
+ * A horse only leaves the world once its record is safely written; until then nobody can
+ * open, interact with or mount it, so its saddle and armor stay what the record says.
+ */
+public final class StableService implements Listener {
+
+    private final Plugin plugin;
+    private final Logger logger;
+    private final CavalryConfig cfg;
+    private final CavalryData data;
+    private final StableStore store;
+    private final MountRegistry registry;
+
+    /** Horse -> millis it was first seen idle in a zone; rebuilt every scan. */
+    private Map<UUID, Long> idleSince = new HashMap<>();
+    /** Horses whose record is being written. */
+    private final Set<UUID> pending = new HashSet<>();
+    private BukkitTask task;
+
+    public StableService(Plugin plugin, CavalryConfig cfg, StableStore store, MountRegistry registry) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.cfg = cfg;
+        this.data = new CavalryData(new Keys(plugin));
+        this.store = store;
+        this.registry = registry;
+    }
+
+    public void start() {
+        if (!cfg.stablesEnabled || cfg.stableZones.isEmpty() || cfg.stableIdleMinutes <= 0) return;
+
+        long period = cfg.stableScanSeconds * 20L;
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::scan, period, period);
+
+        if (cfg.debugEnabled) {
+            logger.info("[Debug] Stable scan started for " + cfg.stableZones.size() + " zone(s)");
+        }
+    }
+
+    public void stop() {
+        if (task != null) task.cancel();
+        task = null;
+        idleSince.clear();
+        pending.clear();
+    }
+
+    public boolean isEnabled() {
+        return cfg.stablesEnabled;
+    }
+
+    public List<StabledHorse> list(UUID owner) {
+        return store.list(owner);
+    }
+
+    /**
+     * @return false if the owner's stable file could not be read; it is then locked for the session
+     */
+    public boolean isWritable(UUID owner) {
+        return store.isWritable(owner);
+    }
+
+    public StableZone zoneAt(Location loc) {
+        for (StableZone z : cfg.stableZones) {
+            if (z.contains(loc)) return z;
+        }
+        return null;
+    }
+
+    /**
+     * @return false if the horse cannot be stabled (untamed, no owner, ridden, leashed, already
+     * being stabled, or the owner's stable is full or read-only)
+     */
+    public boolean canStable(Horse h) {
+        UUID owner = h.getOwnerUniqueId();
+        if (owner == null || !h.isTamed() || !h.isValid()) return false;
+        if (!h.getPassengers().isEmpty() || h.isLeashed() || h.isInsideVehicle()) return false;
+        if (pending.contains(h.getUniqueId())) return false;
+        return store.isWritable(owner) && store.list(owner).size() < cfg.stableMaxPerPlayer;
+    }
+
+    /**
+     * Stores the horse and, once the record is written, removes it from the world.
+     *
+     * @return completes on the main thread with whether the horse was stabled; false at once
+     * if {@link #canStable} refuses it
+     */
+    public CompletableFuture<Boolean> stable(Horse h) {
+        if (!canStable(h)) return CompletableFuture.completedFuture(false);
+
+        UUID id = h.getUniqueId();
+        UUID owner = h.getOwnerUniqueId();
+        HorseInventory inv = h.getInventory();
+        Location loc = h.getLocation();
+        Component name = h.customName();
+        StabledHorse record = new StabledHorse(
+                id,
+                owner,
+                name == null ? null : LegacyComponentSerializer.legacySection().serialize(name),
+                System.currentTimeMillis(),
+                loc.getWorld() == null ? "" : loc.getWorld().getName(),
+                loc.getBlockX(), loc.getBlockY(), loc.getBlockZ(),
+                (byte) h.getColor().ordinal(),
+                (byte) h.getStyle().ordinal(),
+                attributeBase(h, Attribute.MAX_HEALTH),
+                h.getHealth(),
+                attributeBase(h, Attribute.MOVEMENT_SPEED),
+                attributeBase(h, Attribute.JUMP_STRENGTH),
+                h.getAge(),
+                h.getDomestication(),
+                h.getMaxDomestication(),
+                item(inv.getSaddle()),
+                item(inv.getArmor()),
+                data.readRaw(h)
+        );
+
+        pending.add(id);
+        idleSince.remove(id);
+        for (HumanEntity viewer : new ArrayList<>(inv.getViewers())) viewer.closeInventory();
+        return store.add(record).thenApply(ok -> {
+            pending.remove(id);
+            if (!ok) return false;
+
+            if (!h.isValid()) {
+                // Died or unloaded while the record was written: it is not in the stable after all
+                store.remove(owner, id);
+                return false;
+            }
+            // Someone may have got on in the meantime
+            h.eject();
+            registry.remove(id);
+            h.remove();
+
+            if (cfg.debugEnabled) {
+                logger.info("[Debug] Stabled horse " + id + " of " + owner + " at " +
+                        record.world() + " " + record.x() + "," + record.y() + "," + record.z());
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Takes a horse out of the owner's stable and spawns it at {@code at}.
+     *
+     * @return the spawned horse, or null if there is no such stabled horse
+     */
+    public Horse take(UUID owner, int index, Location at) {
+        StabledHorse s = store.remove(owner, index);
+        if (s == null) return null;
+
+        World world = at.getWorld();
+        Horse horse = world.spawn(at, Horse.class, h -> {
+            // Cavalry data first, so the spawn listener sees a current normalization stamp
+            data.writeRaw(h, s.cavalry());
+            // New entity, new UUID: seeded stats keep coming from the horse that was stabled
+            CavalryRecord record = data.read(h);
+            if (record.seedOr(null) == null) {
+                record.setSeed(s.id());
+                data.write(h, record);
+            }
+
+            h.setOwner(Bukkit.getOfflinePlayer(s.owner()));
+            h.setTamed(true);
+            if (s.name() != null) h.customName(LegacyComponentSerializer.legacySection().deserialize(s.name()));
+            h.setColor(Horse.Color.values()[Math.floorMod(s.color(), Horse.Color.values().length)]);
+            h.setStyle(Horse.Style.values()[Math.floorMod(s.style(), Horse.Style.values().length)]);
+            h.setAge(s.age());
+            h.setMaxDomestication(Math.max(1, s.maxDomestication()));
+            h.setDomestication(Math.min(s.domestication(), h.getMaxDomestication()));
+
+            setAttributeBase(h, Attribute.MAX_HEALTH, s.maxHealth());
+            setAttributeBase(h, Attribute.MOVEMENT_SPEED, s.speed());
+            setAttributeBase(h, Attribute.JUMP_STRENGTH, s.jump());
+            h.setHealth(Math.max(0.5, Math.min(s.health(), s.maxHealth())));
+
+            h.getInventory().setSaddle(item(s.saddle()));
+            h.getInventory().setArmor(item(s.armor()));
+        });
+
+        registry.update(horse);
+
+        if (cfg.debugEnabled) {
+            logger.info("[Debug] Unstabled horse " + s.id() + " as " + horse.getUniqueId());
+        }
+        return horse;
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    public void onInventoryOpen(InventoryOpenEvent e) {
+        if (pending.isEmpty()) return;
+        if (e.getInventory().getHolder() instanceof Horse h && pending.contains(h.getUniqueId())) e.setCancelled(true);
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    public void onInteract(PlayerInteractEntityEvent e) {
+        if (pending.isEmpty()) return;
+        if (pending.contains(e.getRightClicked().getUniqueId())) e.setCancelled(true);
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    public void onEnter(VehicleEnterEvent e) {
+        if (pending.isEmpty()) return;
+        if (pending.contains(e.getVehicle().getUniqueId())) e.setCancelled(true);
+    }
+
+    private void scan() {
+        long now = System.currentTimeMillis();
+        long idleMillis = cfg.stableIdleMinutes * 60_000L;
+        Map<UUID, Long> next = new HashMap<>();
+        int stabled = 0;
+
+        for (StableZone z : cfg.stableZones) {
+            World w = Bukkit.getWorld(z.world());
+            if (w == null) continue;
+
+            Location center = new Location(w, (z.minX() + z.maxX() + 1) / 2.0, (z.minY() + z.maxY() + 1) / 2.0, (z.minZ() + z.maxZ() + 1) / 2.0);
+            double rx = (z.maxX() - z.minX() + 1) / 2.0;
+            double ry = (z.maxY() - z.minY() + 1) / 2.0;
+            double rz = (z.maxZ() - z.minZ() + 1) / 2.0;
+
+            // Only loaded chunks are searched; horses in unloaded chunks do not tick anyway
+            for (Horse h : w.getNearbyEntitiesByType(Horse.class, center, rx, ry, rz)) {
+                if (!h.isTamed() || h.getOwnerUniqueId() == null) continue;
+                if (!h.getPassengers().isEmpty() || h.isLeashed() || h.isInsideVehicle()) continue;
+                if (!z.contains(h.getLocation())) continue;
+
+                UUID id = h.getUniqueId();
+                long since = idleSince.getOrDefault(id, now);
+                if (now - since >= idleMillis && canStable(h)) {
+                    stable(h);
+                    stabled++;
+                    continue;
+                }
+                next.put(id, since);
+            }
+        }
+
+        // Horses that were ridden away, leashed or left a zone start over
+        idleSince = next;
+
+        if (cfg.debugEnabled && stabled > 0) {
+            logger.info("[Debug] Stable scan is storing " + stabled + " idle horse(s)");
+        }
+    }
+
+    private static byte[] item(ItemStack it) {
+        return it == null || it.getType().isAir() ? null : it.serializeAsBytes();
+    }
+
+    private static ItemStack item(byte[] b) {
+        return b == null ? null : ItemStack.deserializeBytes(b);
+    }
+
+    private static double attributeBase(Horse h, Attribute a) {
+        AttributeInstance ai = h.getAttribute(a);
+        return ai == null ? 0.0 : ai.getBaseValue();
+    }
+
+    private static void setAttributeBase(Horse h, Attribute a, double v) {
+        AttributeInstance ai = h.getAttribute(a);
+        if (ai != null && v > 0) ai.setBaseValue(v);
+    }
+}
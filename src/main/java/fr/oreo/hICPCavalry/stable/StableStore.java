@@ -0,0 +1,236 @@
+package fr.oreo.hICPCavalry.stable;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Stabled horses, one small file per owner in {@code stables/<owner>.dat}.
+ *
+ * An owner's file is only read the first time their stable is touched. Changes are encoded
+ * on the main thread and written by a background thread (tmp file + atomic move), so a crash
+ * leaves either the old or the new file. Adding a horse reports back on the main thread once
+ * the file is written, and is rolled back if it could not be.
+ *
+ * A file that cannot be read completely (unknown format, I/O error) is never overwritten:
+ * that owner's stable stays read-only for the session.
+ *
+ * File layout: magic int, count int, then {@link StabledHorse} records.
+ */
+public final class StableStore {
+
+    private static final int MAGIC = 0x48435331; // "HCS1"
+
+    private final Plugin plugin;
+    private final Logger logger;
+    private final Path dir;
+
+    /** Loaded stables by owner (main thread only). */
+    private final Map<UUID, List<StabledHorse>> loaded = new HashMap<>();
+    /** Owners whose file could not be read; their stables are read-only (main thread only). */
+    private final Set<UUID> readOnly = new HashSet<>();
+
+    /** Write results waiting to be handled on the main thread. */
+    private final ConcurrentLinkedQueue<Runnable> completed = new ConcurrentLinkedQueue<>();
+
+    private ExecutorService writer;
+
+    public StableStore(Plugin plugin) {
+        this.plugin = plugin;
+        this.logger = plugin.getLogger();
+        this.dir = plugin.getDataFolder().toPath().resolve("stables");
+    }
+
+    public void start() {
+        writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "HICP-Cavalry-Stables");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void stop() {
+        if (writer == null) return;
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+        // No tasks can be scheduled while disabling; settle what the last writes reported here instead
+        drain();
+        loaded.clear();
+        readOnly.clear();
+    }
+
+    /** Read-only view of the owner's stable, oldest first. */
+    public List<StabledHorse> list(UUID owner) {
+        return Collections.unmodifiableList(stable(owner));
+    }
+
+    /**
+     * @return false if the owner's stable file could not be read and must not be written
+     */
+    public boolean isWritable(UUID owner) {
+        stable(owner);
+        return !readOnly.contains(owner);
+    }
+
+    /**
+     * Adds the horse and writes the owner's file.
+     *
+     * @return completes on the main thread with true once the file is written, or false if the
+     * stable is read-only or the write failed (the horse is then taken out of the stable again)
+     */
+    public CompletableFuture<Boolean> add(StabledHorse horse) {
+        UUID owner = horse.owner();
+        List<StabledHorse> list = stable(owner);
+        if (readOnly.contains(owner)) return CompletableFuture.completedFuture(false);
+
+        list.add(horse);
+        CompletableFuture<Boolean> done = new CompletableFuture<>();
+        save(owner, list, ok -> {
+            // Later writes may already contain the horse; write the list without it again
+            if (!ok && list.remove(horse)) save(owner, list, null);
+            done.complete(ok);
+        });
+        return done;
+    }
+
+    /**
+     * @return the removed horse, or null if the index is out of range or the stable is read-only
+     */
+    public StabledHorse remove(UUID owner, int index) {
+        List<StabledHorse> list = stable(owner);
+        if (readOnly.contains(owner) || index < 0 || index >= list.size()) return null;
+        StabledHorse h = list.remove(index);
+        save(owner, list, null);
+        return h;
+    }
+
+    /**
+     * Takes a horse out of the stable by id, e.g. when a horse that was being stabled is gone.
+     */
+    public void remove(UUID owner, UUID horse) {
+        List<StabledHorse> list = stable(owner);
+        if (readOnly.contains(owner) || !list.removeIf(h -> h.id().equals(horse))) return;
+        save(owner, list, null);
+    }
+
+    private List<StabledHorse> stable(UUID owner) {
+        List<StabledHorse> list = loaded.get(owner);
+        if (list == null) {
+            list = load(owner);
+            loaded.put(owner, list);
+        }
+        return list;
+    }
+
+    private List<StabledHorse> load(UUID owner) {
+        List<StabledHorse> list = new ArrayList<>();
+        Path file = file(owner);
+        if (!Files.exists(file)) return list;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                // Never overwrite a file we do not understand
+                logger.warning("Stable " + file.getFileName() + " has an unknown format, it stays read-only for this session");
+                readOnly.add(owner);
+                return list;
+            }
+            int n = in.readInt();
+            for (int i = 0; i < n; i++) {
+                list.add(StabledHorse.read(in));
+            }
+        } catch (IOException ex) {
+            logger.warning("Could not read stable " + file.getFileName() + ", it stays read-only for this session (" +
+                    list.size() + " horse(s) readable): " + ex.getMessage());
+            readOnly.add(owner);
+        }
+        return list;
+    }
+
+    /**
+     * @param result called on the main thread with whether the file was written, may be null
+     */
+    private void save(UUID owner, List<StabledHorse> list, Consumer<Boolean> result) {
+        byte[] bytes;
+        try {
+            ByteArrayOutputStream buf = new ByteArrayOutputStream(64 + list.size() * 256);
+            DataOutputStream out = new DataOutputStream(buf);
+            out.writeInt(MAGIC);
+            out.writeInt(list.size());
+            for (StabledHorse h : list) h.write(out);
+            out.flush();
+            bytes = buf.toByteArray();
+        } catch (IOException ex) {
+            logger.warning("Could not encode stable of " + owner + ": " + ex.getMessage());
+            if (result != null) result.accept(false);
+            return;
+        }
+
+        Path file = file(owner);
+        Runnable write = () -> {
+            boolean ok = false;
+            try {
+                Files.createDirectories(dir);
+                Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+                try (BufferedOutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+                    out.write(bytes);
+                }
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                ok = true;
+            } catch (IOException ex) {
+                logger.warning("Could not write stable " + file.getFileName() + ": " + ex.getMessage());
+            }
+            if (result != null) report(result, ok);
+        };
+
+        if (writer != null) writer.execute(write);
+        else write.run();
+    }
+
+    private void report(Consumer<Boolean> result, boolean ok) {
+        completed.add(() -> result.accept(ok));
+        if (Bukkit.isPrimaryThread()) {
+            drain();
+        } else if (plugin.isEnabled()) {
+            Bukkit.getScheduler().runTask(plugin, this::drain);
+        }
+    }
+
+    /** Main thread only. */
+    private void drain() {
+        Runnable r;
+        while ((r = completed.poll()) != null) r.run();
+    }
+
+    private Path file(UUID owner) {
+        return dir.resolve(owner + ".dat");
+    }
+}
@@ -0,0 +1,112 @@
+package fr.oreo.hICPCavalry.stable;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * A horse put away in a stable: everything needed to respawn it with identical stats.
+ *
+ * Attribute values are bases (penalties only ever live in transient modifiers).
+ * Items are Paper's {@code ItemStack#serializeAsBytes} form and {@code cavalry} is the
+ * raw {@code CavalryRecord}; any of the three may be null.
+ */
+public record StabledHorse(
+        UUID id,
+        UUID owner,
+        String name,
+        long stabledAt,
+        String world,
+        int x,
+        int y,
+        int z,
+        byte color,
+        byte style,
+        double maxHealth,
+        double health,
+        double speed,
+        double jump,
+        int age,
+        int domestication,
+        int maxDomestication,
+        byte[] saddle,
+        byte[] armor,
+        byte[] cavalry
+) {
+
+    static final byte VERSION = 1;
+
+    void write(DataOutputStream out) throws IOException {
+        out.writeByte(VERSION);
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+        out.writeLong(owner.getMostSignificantBits());
+        out.writeLong(owner.getLeastSignificantBits());
+        out.writeBoolean(name != null);
+        if (name != null) out.writeUTF(name);
+        out.writeLong(stabledAt);
+        out.writeUTF(world);
+        out.writeInt(x);
+        out.writeInt(y);
+        out.writeInt(z);
+        out.writeByte(color);
+        out.writeByte(style);
+        out.writeDouble(maxHealth);
+        out.writeDouble(health);
+        out.writeDouble(speed);
+        out.writeDouble(jump);
+        out.writeInt(age);
+        out.writeInt(domestication);
+        out.writeInt(maxDomestication);
+        writeBytes(out, saddle);
+        writeBytes(out, armor);
+        writeBytes(out, cavalry);
+    }
+
+    static StabledHorse read(DataInputStream in) throws IOException {
+        byte version = in.readByte();
+        if (version != VERSION) throw new IOException("unknown stabled horse version " + version);
+
+        UUID id = new UUID(in.readLong(), in.readLong());
+        UUID owner = new UUID(in.readLong(), in.readLong());
+        String name = in.readBoolean() ? in.readUTF() : null;
+        long stabledAt = in.readLong();
+        String world = in.readUTF();
+        int x = in.readInt();
+        int y = in.readInt();
+        int z = in.readInt();
+        byte color = in.readByte();
+        byte style = in.readByte();
+        double maxHealth = in.readDouble();
+        double health = in.readDouble();
+        double speed = in.readDouble();
+        double jump = in.readDouble();
+        int age = in.readInt();
+        int domestication = in.readInt();
+        int maxDomestication = in.readInt();
+        byte[] saddle = readBytes(in);
+        byte[] armor = readBytes(in);
+        byte[] cavalry = readBytes(in);
+        return new StabledHorse(id, owner, name, stabledAt, world, x, y, z, color, style,
+                maxHealth, health, speed, jump, age, domestication, maxDomestication, saddle, armor, cavalry);
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] b) throws IOException {
+        if (b == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(b.length);
+            out.write(b);
+        }
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int n = in.readInt();
+        if (n < 0) return null;
+        if (n > 1 << 20) throw new IOException("stabled horse field too large: " + n);
+        byte[] b = new byte[n];
+        in.readFully(b);
+        return b;
+    }
+}
@@ -14,24 +14,24 @@ public final class ArmorPoints {
 
     private ArmorPoints() {}
 
-    public static int getPlayerArmorPoints(Player p, boolean leatherCountsAsZero) {
+    public static int getPlayerArmorPoints(Player p, boolean leatherCountsAsZero, ArmorWeights weights) {
         if (p == null || p.getInventory() == null) return 0;
 
         int pts = 0;
-        pts += armorPiecePoints(p.getInventory().getHelmet(), leatherCountsAsZero);
-        pts += armorPiecePoints(p.getInventory().getChestplate(), leatherCountsAsZero);
-        pts += armorPiecePoints(p.getInventory().getLeggings(), leatherCountsAsZero);
-        pts += armorPiecePoints(p.getInventory().getBoots(), leatherCountsAsZero);
+        pts += armorPiecePoints(p.getInventory().getHelmet(), leatherCountsAsZero, weights);
+        pts += armorPiecePoints(p.getInventory().getChestplate(), leatherCountsAsZero, weights);
+        pts += armorPiecePoints(p.getInventory().getLeggings(), leatherCountsAsZero, weights);
+        pts += armorPiecePoints(p.getInventory().getBoots(), leatherCountsAsZero, weights);
         return pts;
     }
 
-    public static int getPlayerArmorPointsWithDebug(Player p, boolean leatherCountsAsZero, Logger logger, boolean debugEnabled) {
+    public static int getPlayerArmorPointsWithDebug(Player p, boolean leatherCountsAsZero, ArmorWeights weights, Logger logger, boolean debugEnabled) {
         if (p == null || p.getInventory() == null) return 0;
 
-        int helmet = armorPiecePoints(p.getInventory().getHelmet(), leatherCountsAsZero);
-        int chest = armorPiecePoints(p.getInventory().getChestplate(), leatherCountsAsZero);
-        int legs = armorPiecePoints(p.getInventory().getLeggings(), leatherCountsAsZero);
-        int boots = armorPiecePoints(p.getInventory().getBoots(), leatherCountsAsZero);
+        int helmet = armorPiecePoints(p.getInventory().getHelmet(), leatherCountsAsZero, weights);
+        int chest = armorPiecePoints(p.getInventory().getChestplate(), leatherCountsAsZero, weights);
+        int legs = armorPiecePoints(p.getInventory().getLeggings(), leatherCountsAsZero, weights);
+        int boots = armorPiecePoints(p.getInventory().getBoots(), leatherCountsAsZero, weights);
 
         int total = helmet + chest + legs + boots;
 
@@ -47,16 +47,19 @@ public final class ArmorPoints {
         return total;
     }
 
-    public static int getHorseArmorPoints(Horse h, Map<Material, Integer> mapping, boolean leatherCountsAsZero) {
+    public static int getHorseArmorPoints(Horse h, Map<Material, Integer> mapping, boolean leatherCountsAsZero, ArmorWeights weights) {
         if (h == null || h.getInventory() == null) return 0;
         ItemStack armor = h.getInventory().getArmor();
         if (armor == null) return 0;
 
+        int custom = weights.weight(armor);
+        if (custom != ArmorWeights.NONE) return custom;
+
         if (leatherCountsAsZero && armor.getType() == Material.LEATHER_HORSE_ARMOR) return 0;
         return mapping.getOrDefault(armor.getType(), 0);
     }
 
-    public static int getHorseArmorPointsWithDebug(Horse h, Map<Material, Integer> mapping, boolean leatherCountsAsZero, Logger logger, boolean debugEnabled) {
+    public static int getHorseArmorPointsWithDebug(Horse h, Map<Material, Integer> mapping, boolean leatherCountsAsZero, ArmorWeights weights, Logger logger, boolean debugEnabled) {
         if (h == null || h.getInventory() == null) return 0;
         ItemStack armor = h.getInventory().getArmor();
 
@@ -67,7 +70,14 @@ public final class ArmorPoints {
             return 0;
         }
 
-        int points = 0;
+        int points = weights.weight(armor);
+        if (points != ArmorWeights.NONE) {
+            if (debugEnabled && logger != null) {
+                logger.info("[Debug] Horse armor: " + armor.getType() + " = " + points + " points (custom weight)");
+            }
+            return points;
+        }
+
         if (leatherCountsAsZero && armor.getType() == Material.LEATHER_HORSE_ARMOR) {
             points = 0;
         } else {
@@ -81,8 +91,12 @@ public final class ArmorPoints {
         return points;
     }
 
-    private static int armorPiecePoints(ItemStack it, boolean leatherCountsAsZero) {
+    private static int armorPiecePoints(ItemStack it, boolean leatherCountsAsZero, ArmorWeights weights) {
         if (it == null) return 0;
+
+        int custom = weights.weight(it);
+        if (custom != ArmorWeights.NONE) return custom;
+
         Material m = it.getType();
 
         if (leatherCountsAsZero) {
@@ -0,0 +1,123 @@
+package fr.oreo.hICPCavalry.util;
+
+import fr.oreo.hICPCavalry.config.CavalryConfig;
+import fr.oreo.hICPCavalry.keys.Keys;
+import io.papermc.paper.datacomponent.DataComponentTypes;
+import io.papermc.paper.datacomponent.item.CustomModelData;
+import io.papermc.paper.datacomponent.item.ItemAttributeModifiers;
+import org.bukkit.Material;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeModifier;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Armor weight of items that do not fit the built-in vanilla tables: a PDC weight tag, the
+ * item's own armor attribute modifiers, or the configured fallback table (see config.yml,
+ * {@code armor_weights}).
+ *
+ * Items without metadata are answered from a table by material ordinal. For items with
+ * metadata, only the inputs that decide the weight are read, through Paper's read-only
+ * component views instead of a copied {@code ItemMeta}: material, custom model data, the
+ * weight tag and the armor modifiers. Results are cached on those, so damage, names or
+ * enchantments do not add entries. Main thread only.
+ */
+public final class ArmorWeights {
+
+    /** No custom weight; the caller uses its vanilla value. */
+    public static final int NONE = -1;
+
+    private static final int CACHE_SIZE = 512;
+    private static final int NO_TAG = Integer.MIN_VALUE;
+    private static final int NO_MODEL = Integer.MIN_VALUE;
+
+    private final CavalryConfig cfg;
+    private final Keys keys;
+    private final int[] byMaterial;
+
+    /**
+     * What a weight depends on. armor is the sum of the additive ARMOR modifiers, NaN when the
+     * item has none of its own or attributes are not used.
+     */
+    private record Key(Material type, int customModelData, int tag, double armor) {
+    }
+
+    private final Map<Key, Integer> cache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Integer> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    public ArmorWeights(Plugin plugin, CavalryConfig cfg) {
+        this.cfg = cfg;
+        this.keys = new Keys(plugin);
+
+        byMaterial = new int[Material.values().length];
+        Arrays.fill(byMaterial, NONE);
+        for (Map.Entry<String, Integer> e : cfg.armorWeightFallback.entrySet()) {
+            if (e.getKey().indexOf('#') >= 0) continue;
+            Material m = Material.getMaterial(e.getKey());
+            if (m != null) byMaterial[m.ordinal()] = e.getValue();
+        }
+    }
+
+    /**
+     * @return the item's custom weight in armor points, or {@link #NONE}
+     */
+    public int weight(ItemStack it) {
+        if (it == null) return NONE;
+        if (!it.hasItemMeta()) return byMaterial[it.getType().ordinal()];
+
+        Key key = key(it);
+        Integer cached = cache.get(key);
+        if (cached != null) return cached;
+
+        int w = resolve(key);
+        cache.put(key, w);
+        return w;
+    }
+
+    private Key key(ItemStack it) {
+        Integer tagged = it.getPersistentDataContainer().get(keys.ARMOR_WEIGHT, PersistentDataType.INTEGER);
+
+        int model = NO_MODEL;
+        if (it.isDataOverridden(DataComponentTypes.CUSTOM_MODEL_DATA)) {
+            CustomModelData cmd = it.getData(DataComponentTypes.CUSTOM_MODEL_DATA);
+            if (cmd != null && !cmd.floats().isEmpty()) model = cmd.floats().get(0).intValue();
+        }
+
+        double armor = Double.NaN;
+        // Only modifiers set on this item, like ItemMeta reports them; vanilla defaults are in the tables
+        if (cfg.armorWeightsFromAttributes && it.isDataOverridden(DataComponentTypes.ATTRIBUTE_MODIFIERS)) {
+            ItemAttributeModifiers mods = it.getData(DataComponentTypes.ATTRIBUTE_MODIFIERS);
+            if (mods != null) {
+                for (ItemAttributeModifiers.Entry entry : mods.modifiers()) {
+                    if (!Attribute.ARMOR.equals(entry.attribute())) continue;
+                    if (Double.isNaN(armor)) armor = 0.0;
+                    AttributeModifier mod = entry.modifier();
+                    // Multipliers scale the wearer's total, they carry no weight of their own
+                    if (mod.getOperation() == AttributeModifier.Operation.ADD_NUMBER) armor += mod.getAmount();
+                }
+            }
+        }
+
+        return new Key(it.getType(), model, tagged == null ? NO_TAG : tagged, armor);
+    }
+
+    private int resolve(Key key) {
+        if (key.tag() != NO_TAG) return Math.max(0, key.tag());
+        if (!Double.isNaN(key.armor())) return Math.max(0, (int) Math.round(key.armor()));
+
+        if (key.customModelData() != NO_MODEL) {
+            Integer w = cfg.armorWeightFallback.get(key.type().name() + "#" + key.customModelData());
+            if (w != null) return w;
+        }
+        return byMaterial[key.type().ordinal()];
+    }
+}
@@ -2,12 +2,12 @@ package fr.oreo.hICPCavalry.util;
 
 import org.bukkit.Material;
 import org.bukkit.World;
-import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Horse;
-import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
-import org.bukkit.util.Vector;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Locale;
 
 public final class EntityUtil {
 
@@ -32,13 +32,6 @@ public final class EntityUtil {
         return w != null && (w.hasStorm() || w.isThundering());
     }
 
-    public static Vector forwardProbe(Vector velocity) {
-        Vector v = velocity == null ? new Vector(0, 0, 0) : velocity.clone();
-        v.setY(0);
-        if (v.lengthSquared() < 1.0E-6) return null;
-        return v.normalize().multiply(0.75);
-    }
-
     public static boolean isWater(Material m) { return m == Material.WATER; }
     public static boolean isSnowyBlock(Material m) { return m == Material.SNOW || m == Material.SNOW_BLOCK || m == Material.POWDER_SNOW; }
     public static boolean isMud(Material m) { return m == Material.MUD; }
@@ -46,8 +39,15 @@ public final class EntityUtil {
     public static boolean isLava(Material m) { return m == Material.LAVA; }
     public static boolean isMagma(Material m) { return m == Material.MAGMA_BLOCK; }
 
-    public static Block blockAt(LivingEntity ent, Vector offset) {
-        if (ent == null || offset == null) return null;
-        return ent.getLocation().add(offset).getBlock();
+    public static boolean isSword(ItemStack it, boolean onlyVanilla) {
+        if (it == null) return false;
+        Material m = it.getType();
+        if (!m.name().toLowerCase(Locale.ROOT).endsWith("_sword")) return false;
+        if (!onlyVanilla) return true;
+
+        return switch (m) {
+            case WOODEN_SWORD, STONE_SWORD, IRON_SWORD, GOLDEN_SWORD, DIAMOND_SWORD, NETHERITE_SWORD -> true;
+            default -> false;
+        };
     }
 }
@@ -0,0 +1,48 @@
+package fr.oreo.hICPCavalry.util;
+
+import fr.oreo.hICPCavalry.config.CavalryConfig;
+
+import java.util.UUID;
+
+/**
+ * Base stats derived from the mount's UUID and the active config.
+ * The same horse always gets the same values, so nothing has to be stored per entity.
+ */
+public final class SeededStats {
+
+    private static final long SPEED_SALT = 0x5EEDL;
+    private static final long JUMP_SALT = 0x1A4BL;
+
+    private SeededStats() {}
+
+    public static double baseSpeed(UUID id, CavalryConfig cfg) {
+        double v = cfg.horseNormalizedSpeed * (1.0 + spread(id, SPEED_SALT) * cfg.seededVariationPct / 100.0);
+        return Math.max(cfg.clampMin, Math.min(cfg.clampMax, v));
+    }
+
+    public static double baseJump(UUID id, CavalryConfig cfg) {
+        double v = cfg.horseNormalizedJump * (1.0 + spread(id, JUMP_SALT) * cfg.seededVariationPct / 100.0);
+        return Math.max(0.05, v);
+    }
+
+    /**
+     * Triangular value in [-1, 1], centered on 0 (sum of two uniforms).
+     */
+    private static double spread(UUID id, long salt) {
+        long seed = id.getMostSignificantBits() ^ Long.rotateLeft(id.getLeastSignificantBits(), 17) ^ salt;
+        long a = mix64(seed);
+        long b = mix64(a);
+        return unit(a) + unit(b) - 1.0;
+    }
+
+    private static double unit(long bits) {
+        return (bits >>> 11) * 0x1.0p-53;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
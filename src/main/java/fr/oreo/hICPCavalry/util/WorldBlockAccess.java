@@ -0,0 +1,48 @@
+package fr.oreo.hICPCavalry.util;
+
+import fr.oreo.hICPCavalry.core.BlockAccess;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+/**
+ * {@link BlockAccess} over a Bukkit world. Reusable: point it at a world with {@link #use}
+ * before each rule call. Main thread only.
+ *
+ * Never loads chunks: blocks in unloaded chunks are {@link #KIND_UNKNOWN}. The loaded state
+ * of the last chunk asked about is remembered until the next {@link #use}.
+ */
+public final class WorldBlockAccess implements BlockAccess {
+
+    private World world;
+    private int lastCx;
+    private int lastCz;
+    private boolean lastLoaded;
+    private boolean hasLast;
+
+    public WorldBlockAccess use(World world) {
+        this.world = world;
+        this.hasLast = false;
+        return this;
+    }
+
+    @Override
+    public byte kind(int x, int y, int z) {
+        int cx = x >> 4;
+        int cz = z >> 4;
+        if (!hasLast || cx != lastCx || cz != lastCz) {
+            lastCx = cx;
+            lastCz = cz;
+            lastLoaded = world.isChunkLoaded(cx, cz);
+            hasLast = true;
+        }
+        if (!lastLoaded) return KIND_UNKNOWN;
+
+        Block b = world.getBlockAt(x, y, z);
+        Material m = b.getType();
+        if (EntityUtil.isWater(m)) return KIND_WATER;
+        if (EntityUtil.isLava(m)) return KIND_LAVA;
+        if (EntityUtil.isMagma(m)) return KIND_MAGMA;
+        return b.isPassable() ? KIND_PASSABLE : KIND_SOLID;
+    }
+}
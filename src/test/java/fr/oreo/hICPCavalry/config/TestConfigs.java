@@ -0,0 +1,54 @@
+package fr.oreo.hICPCavalry.config;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Plugin configs for tests, built from the bundled config.yml without a data folder.
+ */
+public final class TestConfigs {
+
+    private TestConfigs() {}
+
+    /** The settings a fresh install ships with. */
+    public static CavalryConfig defaults() {
+        return with(c -> {});
+    }
+
+    /** The bundled settings with {@code overrides} applied on top. */
+    public static CavalryConfig with(Consumer<YamlConfiguration> overrides) {
+        YamlConfiguration c = bundled();
+        overrides.accept(c);
+        return new CavalryConfig(c);
+    }
+
+    /**
+     * Turns the allocation monitor on and every debug log category off, so the measured
+     * paths run as they do on a server.
+     */
+    public static void measureAllocations(YamlConfiguration c) {
+        for (String key : c.getConfigurationSection("debug").getKeys(true)) {
+            if (c.isBoolean("debug." + key)) c.set("debug." + key, false);
+        }
+        c.set("debug.enabled", true);
+        c.set("debug.performance.allocation_budgets", true);
+    }
+
+    private static YamlConfiguration bundled() {
+        try (InputStream in = TestConfigs.class.getResourceAsStream("/config.yml")) {
+            if (in == null) throw new IllegalStateException("config.yml is not on the test classpath");
+            try (Reader r = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                return YamlConfiguration.loadConfiguration(r);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package fr.oreo.hICPCavalry.config;
+
+import org.bukkit.configuration.MemoryConfiguration;
+
+import java.util.ArrayList;
+
+/**
+ * World profiles for tests, built without a server or config file.
+ */
+public final class TestProfiles {
+
+    private TestProfiles() {}
+
+    /** The built-in defaults of every setting. */
+    public static WorldProfile defaults() {
+        return new WorldProfile("*", new MemoryConfiguration(), new ArrayList<>());
+    }
+}
@@ -0,0 +1,47 @@
+package fr.oreo.hICPCavalry.core;
+
+import java.util.Arrays;
+
+/**
+ * Test world: a primitive block grid over x, z in [-32, 32) and y in [0, 64).
+ * Everything outside the grid reads as {@link BlockAccess#KIND_UNKNOWN}, like an unloaded chunk.
+ */
+public final class GridBlocks implements BlockAccess {
+
+    private static final int HALF = 32;
+    private static final int SIZE = HALF * 2;
+    private static final int HEIGHT = 64;
+
+    private final byte[] cells = new byte[SIZE * SIZE * HEIGHT];
+
+    /** Solid ground up to and including {@code groundY}, air above. */
+    public GridBlocks(int groundY) {
+        Arrays.fill(cells, KIND_PASSABLE);
+        fill(-HALF, 0, -HALF, HALF - 1, groundY, HALF - 1, KIND_SOLID);
+    }
+
+    public GridBlocks set(int x, int y, int z, byte kind) {
+        cells[index(x, y, z)] = kind;
+        return this;
+    }
+
+    /** Sets every cell of the inclusive box. */
+    public GridBlocks fill(int x0, int y0, int z0, int x1, int y1, int z1, byte kind) {
+        for (int x = x0; x <= x1; x++) {
+            for (int y = y0; y <= y1; y++) {
+                for (int z = z0; z <= z1; z++) cells[index(x, y, z)] = kind;
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public byte kind(int x, int y, int z) {
+        if (x < -HALF || x >= HALF || z < -HALF || z >= HALF || y < 0 || y >= HEIGHT) return KIND_UNKNOWN;
+        return cells[index(x, y, z)];
+    }
+
+    private static int index(int x, int y, int z) {
+        return ((y * SIZE) + (z + HALF)) * SIZE + (x + HALF);
+    }
+}
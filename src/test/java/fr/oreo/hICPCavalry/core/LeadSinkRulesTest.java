@@ -0,0 +1,31 @@
+package fr.oreo.hICPCavalry.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LeadSinkRulesTest {
+
+    @Test
+    void waterAtFeetOrBelowCounts() {
+        assertTrue(LeadSinkRules.inWater(BlockAccess.KIND_WATER, BlockAccess.KIND_SOLID));
+        assertTrue(LeadSinkRules.inWater(BlockAccess.KIND_PASSABLE, BlockAccess.KIND_WATER));
+        assertFalse(LeadSinkRules.inWater(BlockAccess.KIND_PASSABLE, BlockAccess.KIND_SOLID));
+        assertFalse(LeadSinkRules.inWater(BlockAccess.KIND_UNKNOWN, BlockAccess.KIND_UNKNOWN));
+    }
+
+    @Test
+    void sinkingStartsAtTheConfiguredArmor() {
+        assertTrue(LeadSinkRules.heavyEnough(7, 7));
+        assertFalse(LeadSinkRules.heavyEnough(6, 7));
+    }
+
+    @Test
+    void sinkVelocityPullsDownWithoutSlowingAFall() {
+        assertEquals(-0.08, LeadSinkRules.sinkVelocityY(0.1, 0.08), 1.0E-9);
+        assertEquals(-0.5, LeadSinkRules.sinkVelocityY(-0.5, 0.08), 1.0E-9);
+        assertEquals(-0.08, LeadSinkRules.sinkVelocityY(0.0, -0.08), 1.0E-9);
+    }
+}
@@ -0,0 +1,60 @@
+package fr.oreo.hICPCavalry.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PenaltyRulesTest {
+
+    private static final double EPS = 1.0E-9;
+
+    @Test
+    void reductionWeighsMountArmorAndAddsEnvironment() {
+        assertEquals(25.0, PenaltyRules.reductionPct(true, 10, 5, 2.0, 1.0, true, 5.0, 60.0), EPS);
+    }
+
+    @Test
+    void reductionIsCapped() {
+        assertEquals(60.0, PenaltyRules.reductionPct(true, 20, 10, 1.0, 3.0, true, 0.0, 60.0), EPS);
+    }
+
+    @Test
+    void disabledPartsDoNotCount() {
+        assertEquals(5.0, PenaltyRules.reductionPct(false, 10, 5, 1.0, 1.0, true, 5.0, 60.0), EPS);
+        assertEquals(15.0, PenaltyRules.reductionPct(true, 10, 5, 1.0, 1.0, false, 5.0, 60.0), EPS);
+    }
+
+    @Test
+    void negativeEnvironmentIsABonus() {
+        double pct = PenaltyRules.reductionPct(true, 0, 0, 1.0, 1.0, true, -10.0, 60.0);
+        assertEquals(-10.0, pct, EPS);
+        assertEquals(1.1, PenaltyRules.multiplier(pct), EPS);
+    }
+
+    @Test
+    void multiplierNeverGoesNegative() {
+        assertEquals(0.75, PenaltyRules.multiplier(25.0), EPS);
+        assertEquals(0.0, PenaltyRules.multiplier(150.0), EPS);
+    }
+
+    @Test
+    void finalSpeedIsClamped() {
+        assertEquals(0.15, PenaltyRules.finalSpeed(0.3, 0.5, 0.05, 0.5), EPS);
+        assertEquals(0.05, PenaltyRules.finalSpeed(0.3, 0.0, 0.05, 0.5), EPS);
+        assertEquals(0.5, PenaltyRules.finalSpeed(0.4, 1.5, 0.05, 0.5), EPS);
+    }
+
+    @Test
+    void finalJumpKeepsAMinimum() {
+        assertEquals(0.35, PenaltyRules.finalJump(0.7, 0.5), EPS);
+        assertEquals(PenaltyRules.MIN_JUMP, PenaltyRules.finalJump(0.7, 0.0), EPS);
+    }
+
+    @Test
+    void modifierAmountTurnsBaseIntoTarget() {
+        double amount = PenaltyRules.modifierAmount(0.2, 0.15);
+        assertEquals(-0.25, amount, EPS);
+        assertEquals(0.15, 0.2 * (1.0 + amount), EPS);
+        assertEquals(0.0, PenaltyRules.modifierAmount(0.0, 0.15), EPS);
+    }
+}
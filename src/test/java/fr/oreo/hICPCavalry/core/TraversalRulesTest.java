@@ -0,0 +1,117 @@
+package fr.oreo.hICPCavalry.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Mounts stand on flat ground at y 10 (block y 11, feet cell 10) and sweep along the grid.
+ */
+class TraversalRulesTest {
+
+    private static final int MY = 11;
+    private static final TraversalRules.Settings ALL =
+            new TraversalRules.Settings(2.5, 2.5, true, true, true, 2.0, true);
+    private static final TraversalRules.Settings NO_ANTI_STUCK =
+            new TraversalRules.Settings(2.5, 2.5, true, true, true, 2.0, false);
+    private static final TraversalRules.Settings FEET_ONLY =
+            new TraversalRules.Settings(2.5, 0.0, false, false, true, 2.0, true);
+
+    private final TraversalRules rules = new TraversalRules();
+
+    private TraversalResult sweepX(GridBlocks blocks, TraversalRules.Settings s, double x1) {
+        return rules.sweep(blocks, s, 0.5, 0.5, x1, 0.5, 0, MY, 0);
+    }
+
+    @Test
+    void flatGroundPasses() {
+        assertEquals(TraversalResult.PASS, sweepX(new GridBlocks(10), ALL, 8.5));
+    }
+
+    @Test
+    void holeDeeperThanTheLimitIsACliff() {
+        GridBlocks blocks = new GridBlocks(10).fill(3, 5, 0, 3, 10, 0, BlockAccess.KIND_PASSABLE);
+        assertEquals(TraversalResult.CLIFF, sweepX(blocks, ALL, 5.5));
+    }
+
+    @Test
+    void stepDownWithinTheLimitPasses() {
+        GridBlocks blocks = new GridBlocks(10).fill(3, 9, 0, 3, 10, 0, BlockAccess.KIND_PASSABLE);
+        assertEquals(TraversalResult.PASS, sweepX(blocks, ALL, 5.5));
+    }
+
+    @Test
+    void lavaAndMagmaAreHazards() {
+        assertEquals(TraversalResult.HAZARD, sweepX(new GridBlocks(10).set(2, 10, 0, BlockAccess.KIND_LAVA), ALL, 4.5));
+        assertEquals(TraversalResult.HAZARD, sweepX(new GridBlocks(10).set(2, 10, 0, BlockAccess.KIND_MAGMA), ALL, 4.5));
+        assertEquals(TraversalResult.HAZARD, sweepX(new GridBlocks(10).set(2, 8, 0, BlockAccess.KIND_LAVA), ALL, 4.5));
+    }
+
+    @Test
+    void hazardsCanBeSwitchedOff() {
+        TraversalRules.Settings noMagma = new TraversalRules.Settings(2.5, 2.5, true, false, true, 2.0, true);
+        assertEquals(TraversalResult.PASS, sweepX(new GridBlocks(10).set(2, 10, 0, BlockAccess.KIND_MAGMA), noMagma, 4.5));
+    }
+
+    @Test
+    void deepWaterIsRefusedShallowWaterIsNot() {
+        GridBlocks deep = new GridBlocks(10).fill(3, 8, 0, 3, 10, 0, BlockAccess.KIND_WATER);
+        assertEquals(TraversalResult.WATER, sweepX(deep, ALL, 5.5));
+
+        GridBlocks shallow = new GridBlocks(10).set(3, 10, 0, BlockAccess.KIND_WATER);
+        assertEquals(TraversalResult.PASS, sweepX(shallow, ALL, 5.5));
+    }
+
+    @Test
+    void mountAlreadyInWaterMaySwimOn() {
+        GridBlocks lake = new GridBlocks(10).fill(0, 8, 0, 5, 10, 0, BlockAccess.KIND_WATER);
+        assertEquals(TraversalResult.PASS, sweepX(lake, ALL, 4.5));
+        assertEquals(TraversalResult.WATER, sweepX(lake, NO_ANTI_STUCK, 4.5));
+    }
+
+    @Test
+    void unloadedCellsHold() {
+        assertEquals(TraversalResult.HOLD, rules.sweep(new GridBlocks(10), ALL, 30.5, 0.5, 33.5, 0.5, 30, MY, 0));
+    }
+
+    @Test
+    void firstRefusalAlongTheMoveWins() {
+        GridBlocks blocks = new GridBlocks(10)
+                .fill(3, 5, 0, 3, 10, 0, BlockAccess.KIND_PASSABLE)
+                .fill(5, 8, 0, 5, 10, 0, BlockAccess.KIND_WATER);
+        assertEquals(TraversalResult.CLIFF, sweepX(blocks, ALL, 6.5));
+        assertEquals(TraversalResult.WATER, rules.sweep(blocks, ALL, 6.5, 0.5, 2.5, 0.5, 6, MY, 0));
+    }
+
+    @Test
+    void startingCellIsNotChecked() {
+        GridBlocks blocks = new GridBlocks(10).set(0, 10, 0, BlockAccess.KIND_LAVA);
+        assertEquals(TraversalResult.PASS, sweepX(blocks, ALL, 3.5));
+    }
+
+    @Test
+    void negativeCoordinatesRoundDown() {
+        GridBlocks blocks = new GridBlocks(10).fill(-3, 5, 0, -3, 10, 0, BlockAccess.KIND_PASSABLE);
+        assertEquals(TraversalResult.CLIFF, rules.sweep(blocks, ALL, -0.5, 0.5, -4.5, 0.5, -1, MY, 0));
+        assertEquals(TraversalResult.PASS, rules.sweep(blocks, ALL, -0.5, 0.5, -1.5, 0.5, -1, MY, 0));
+    }
+
+    @Test
+    void diagonalVisitsEveryCrossedCellOnce() {
+        assertEquals(TraversalResult.PASS, rules.sweep(new GridBlocks(10), FEET_ONLY, 0.5, 0.5, 3.5, 3.5, 0, MY, 0));
+        assertEquals(6, rules.scanned());
+    }
+
+    @Test
+    void zeroLengthMoveChecksNothing() {
+        assertEquals(TraversalResult.PASS, sweepX(new GridBlocks(10), ALL, 0.7));
+        assertEquals(0, rules.scanned());
+    }
+
+    @Test
+    void sweepIsBoundedForTeleportSizedMoves() {
+        GridBlocks blocks = new GridBlocks(10).fill(28, 5, 0, 28, 10, 0, BlockAccess.KIND_PASSABLE);
+        assertEquals(TraversalResult.PASS, rules.sweep(blocks, FEET_ONLY, -1.5, 0.5, 30.5, 0.5, -2, MY, 0));
+        assertEquals(TraversalRules.MAX_SWEEP_CELLS, rules.scanned());
+    }
+}
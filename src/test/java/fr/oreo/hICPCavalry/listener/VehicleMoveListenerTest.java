@@ -0,0 +1,157 @@
+package fr.oreo.hICPCavalry.listener;
+
+import fr.oreo.hICPCavalry.config.CavalryConfig;
+import fr.oreo.hICPCavalry.config.TestConfigs;
+import fr.oreo.hICPCavalry.config.WorldProfiles;
+import fr.oreo.hICPCavalry.journal.CavalryJournal;
+import fr.oreo.hICPCavalry.perf.AllocationBudget;
+import fr.oreo.hICPCavalry.perf.AllocationMonitor;
+import fr.oreo.hICPCavalry.perf.HotPath;
+import fr.oreo.hICPCavalry.registry.MountRegistry;
+import fr.oreo.hICPCavalry.service.MountKinematics;
+import fr.oreo.hICPCavalry.service.MountStatService;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.entity.Horse;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventException;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.vehicle.VehicleEnterEvent;
+import org.bukkit.plugin.RegisteredListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+import org.mockbukkit.mockbukkit.plugin.MockPlugin;
+import org.mockbukkit.mockbukkit.world.WorldMock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Move handling of a rider on a flat stone floor at y 99, against a mock server.
+ */
+class VehicleMoveListenerTest {
+
+    private static final double Y = 100.0;
+
+    private ServerMock server;
+    private MockPlugin plugin;
+    private WorldMock world;
+    private PlayerMock player;
+    private Horse horse;
+    private MountKinematics kinematics;
+
+    @BeforeEach
+    void setUp() {
+        server = MockBukkit.mock();
+        plugin = MockBukkit.createMockPlugin();
+        world = server.addSimpleWorld("world");
+        for (int cx = -1; cx <= 1; cx++) {
+            for (int cz = -1; cz <= 1; cz++) world.loadChunk(cx, cz);
+        }
+        fill(-16, 99, -16, 31, 99, 15, Material.STONE);
+        fill(-16, 100, -16, 31, 103, 15, Material.AIR);
+
+        CavalryConfig cfg = TestConfigs.defaults();
+        WorldProfiles profiles = new WorldProfiles(plugin, cfg);
+        profiles.start();
+        CavalryJournal journal = new CavalryJournal(plugin, cfg);
+        AllocationMonitor allocations = new AllocationMonitor(plugin, cfg);
+        MountStatService stats = new MountStatService(plugin, cfg, journal, new MountRegistry(plugin, cfg), allocations, profiles);
+        kinematics = new MountKinematics();
+        VehicleMoveListener listener = new VehicleMoveListener(plugin, cfg, journal, allocations, kinematics, profiles, stats);
+        server.getPluginManager().registerEvents(kinematics, plugin);
+        server.getPluginManager().registerEvents(listener, plugin);
+        listener.start();
+
+        player = server.addPlayer();
+        horse = world.spawn(new Location(world, 0.5, Y, 0.5), Horse.class);
+        horse.setTamed(true);
+        horse.setOwner(player);
+        horse.addPassenger(player);
+        server.getPluginManager().callEvent(new VehicleEnterEvent(horse, player));
+    }
+
+    @AfterEach
+    void tearDown() {
+        MockBukkit.unmock();
+    }
+
+    @Test
+    void openGroundIsLetThroughAndGivesAHeading() {
+        PlayerMoveEvent first = move(0.5, 0.8);
+        server.getScheduler().performOneTick();
+        PlayerMoveEvent second = move(0.8, 1.1);
+
+        assertFalse(first.isCancelled());
+        assertFalse(second.isCancelled());
+        assertTrue(kinematics.hasHeading(horse.getUniqueId()));
+        assertEquals(1.0, kinematics.headingX(horse.getUniqueId()), 1e-9);
+    }
+
+    @Test
+    void waterAheadIsRefused() {
+        fill(2, 99, -4, 5, 100, 4, Material.WATER);
+
+        assertTrue(move(0.5, 1.0).isCancelled());
+    }
+
+    @Test
+    void movesCancelledByOthersAreNotRecorded() {
+        server.getPluginManager().registerEvents(new Listener() {
+            @EventHandler(priority = EventPriority.HIGH)
+            public void onMove(PlayerMoveEvent e) {
+                e.setCancelled(true);
+            }
+        }, plugin);
+
+        move(0.5, 0.8);
+        server.getScheduler().performOneTick();
+        move(0.8, 1.1);
+
+        assertFalse(kinematics.hasHeading(horse.getUniqueId()));
+    }
+
+    @Test
+    void moveHandlingStaysWithinBudget() {
+        PlayerMoveEvent e = new PlayerMoveEvent(player, at(0.5), at(0.8));
+        RegisteredListener[] handlers = PlayerMoveEvent.getHandlerList().getRegisteredListeners();
+
+        // Straight to the handlers: the mock plugin manager keeps every event it is given
+        AllocationBudget.assertWithin(HotPath.TRAVERSAL_CHECK, 1, () -> fire(handlers, e));
+        assertFalse(e.isCancelled());
+    }
+
+    private PlayerMoveEvent move(double fromX, double toX) {
+        PlayerMoveEvent e = new PlayerMoveEvent(player, at(fromX), at(toX));
+        server.getPluginManager().callEvent(e);
+        return e;
+    }
+
+    private Location at(double x) {
+        return new Location(world, x, Y, 0.5);
+    }
+
+    private void fill(int x0, int y0, int z0, int x1, int y1, int z1, Material m) {
+        for (int x = x0; x <= x1; x++) {
+            for (int y = y0; y <= y1; y++) {
+                for (int z = z0; z <= z1; z++) world.getBlockAt(x, y, z).setType(m);
+            }
+        }
+    }
+
+    private static void fire(RegisteredListener[] handlers, Event e) {
+        try {
+            for (RegisteredListener h : handlers) h.callEvent(e);
+        } catch (EventException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
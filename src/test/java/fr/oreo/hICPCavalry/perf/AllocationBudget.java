@@ -0,0 +1,52 @@
+package fr.oreo.hICPCavalry.perf;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Holds a piece of hot-path code to its {@link HotPath} budget, measured with the same
+ * per-thread allocation counters as {@link AllocationMonitor}. The code is warmed up first,
+ * so the JIT has compiled it as it would be on a running server.
+ */
+public final class AllocationBudget {
+
+    private static final int WARMUP_CALLS = 20_000;
+    private static final int MEASURED_CALLS = 10_000;
+
+    private AllocationBudget() {}
+
+    /**
+     * Fails unless {@code call} allocates at most {@code path.budgetBytes} per unit of work.
+     *
+     * @param units units of work per call, as passed to {@link AllocationMonitor#end}
+     */
+    public static void assertWithin(HotPath path, int units, Runnable call) {
+        long perUnit = bytesPerCall(call) / units;
+        assertTrue(perUnit <= path.budgetBytes,
+                () -> path + " allocates " + perUnit + " B per call, budget is " + path.budgetBytes);
+    }
+
+    /**
+     * Fails unless {@code call} allocates nothing at all, for code that has no business
+     * allocating (the server-independent rules).
+     */
+    public static void assertAllocationFree(Runnable call) {
+        long perCall = bytesPerCall(call);
+        assertTrue(perCall == 0, () -> "allocates " + perCall + " B per call, expected none");
+    }
+
+    public static long bytesPerCall(Runnable call) {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean sun
+                && sun.isThreadAllocatedMemorySupported(), "no per-thread allocation counters on this JVM");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        for (int i = 0; i < WARMUP_CALLS; i++) call.run();
+
+        long start = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_CALLS; i++) call.run();
+        return (threads.getCurrentThreadAllocatedBytes() - start) / MEASURED_CALLS;
+    }
+}
@@ -0,0 +1,48 @@
+package fr.oreo.hICPCavalry.perf;
+
+import fr.oreo.hICPCavalry.core.BlockAccess;
+import fr.oreo.hICPCavalry.core.GridBlocks;
+import fr.oreo.hICPCavalry.core.LeadSinkRules;
+import fr.oreo.hICPCavalry.core.TraversalRules;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The server-independent parts of the per-tick paths allocate nothing. STAT_COMPUTE is
+ * covered next to RefreshBatch; the server-facing stages are held to their {@link HotPath}
+ * budgets against a mock server in VehicleMoveListenerTest and MountStatServiceTest.
+ */
+class HotPathBudgetTest {
+
+    private static final TraversalRules.Settings SETTINGS =
+            new TraversalRules.Settings(2.5, 2.5, true, true, true, 2.0, true);
+
+    private static volatile Object sink;
+    private static volatile double sinkY;
+
+    @Test
+    void traversalSweepAllocatesNothing() {
+        GridBlocks blocks = new GridBlocks(10)
+                .fill(8, 8, -4, 9, 10, 4, BlockAccess.KIND_WATER)
+                .set(-6, 9, 3, BlockAccess.KIND_LAVA);
+        TraversalRules rules = new TraversalRules();
+
+        AllocationBudget.assertAllocationFree(() -> {
+            sink = rules.sweep(blocks, SETTINGS, 0.5, 0.5, 7.5, 2.5, 0, 11, 0);
+            sink = rules.sweep(blocks, SETTINGS, 0.5, 0.5, 12.5, 0.5, 0, 11, 0);
+            sink = rules.sweep(blocks, SETTINGS, 0.5, 0.5, -6.5, 3.5, 0, 11, 0);
+        });
+    }
+
+    @Test
+    void leadSinkRulesAllocateNothing() {
+        GridBlocks blocks = new GridBlocks(5).fill(-4, 6, -4, 4, 10, 4, BlockAccess.KIND_WATER);
+
+        AllocationBudget.assertAllocationFree(() -> {
+            byte feet = blocks.kind(1, 8, 1);
+            byte below = blocks.kind(1, 7, 1);
+            if (LeadSinkRules.inWater(feet, below) && LeadSinkRules.heavyEnough(11, 7)) {
+                sinkY = LeadSinkRules.sinkVelocityY(-0.02, 0.08);
+            }
+        });
+    }
+}
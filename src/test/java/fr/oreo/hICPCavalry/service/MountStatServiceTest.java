@@ -0,0 +1,111 @@
+package fr.oreo.hICPCavalry.service;
+
+import fr.oreo.hICPCavalry.api.MountStats;
+import fr.oreo.hICPCavalry.config.CavalryConfig;
+import fr.oreo.hICPCavalry.config.TestConfigs;
+import fr.oreo.hICPCavalry.config.WorldProfiles;
+import fr.oreo.hICPCavalry.journal.CavalryJournal;
+import fr.oreo.hICPCavalry.perf.AllocationMonitor;
+import fr.oreo.hICPCavalry.perf.HotPath;
+import fr.oreo.hICPCavalry.registry.MountRegistry;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.entity.Horse;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+import org.mockbukkit.mockbukkit.plugin.MockPlugin;
+import org.mockbukkit.mockbukkit.world.WorldMock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Snapshot and apply stages of the stat refresh for one armored rider, against a mock
+ * server, refreshing every tick. Stage allocations come from the plugin's own
+ * {@link AllocationMonitor}, which measures exactly around each stage.
+ */
+class MountStatServiceTest {
+
+    private static final int WARMUP_TICKS = 2_000;
+    private static final int MEASURED_TICKS = 2_000;
+
+    private ServerMock server;
+    private AllocationMonitor allocations;
+    private MountStatService stats;
+    private PlayerMock player;
+    private Horse horse;
+
+    @BeforeEach
+    void setUp() {
+        server = MockBukkit.mock();
+        MockPlugin plugin = MockBukkit.createMockPlugin();
+        WorldMock world = server.addSimpleWorld("world");
+
+        CavalryConfig cfg = TestConfigs.with(c -> {
+            TestConfigs.measureAllocations(c);
+            c.set("performance.stat_refresh_period_ticks", 1);
+            c.set("performance.parallel_compute_threads", 0);
+            c.set("performance.adaptive_refresh.enabled", false);
+        });
+        WorldProfiles profiles = new WorldProfiles(plugin, cfg);
+        profiles.start();
+        allocations = new AllocationMonitor(plugin, cfg);
+        stats = new MountStatService(plugin, cfg, new CavalryJournal(plugin, cfg), new MountRegistry(plugin, cfg),
+                allocations, profiles);
+
+        player = server.addPlayer();
+        player.getInventory().setChestplate(new ItemStack(Material.DIAMOND_CHESTPLATE));
+        player.getInventory().setLeggings(new ItemStack(Material.IRON_LEGGINGS));
+        horse = world.spawn(new Location(world, 0.5, 100, 0.5), Horse.class);
+        horse.setTamed(true);
+        horse.setOwner(player);
+        horse.getInventory().setArmor(new ItemStack(Material.DIAMOND_HORSE_ARMOR));
+        horse.addPassenger(player);
+
+        stats.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stats.stop();
+        MockBukkit.unmock();
+    }
+
+    @Test
+    void armorSlowsTheMountDown() {
+        server.getScheduler().performTicks(5);
+
+        MountStats s = stats.statsOfRider(player.getUniqueId());
+        assertNotNull(s);
+        assertEquals(horse.getUniqueId(), s.mount());
+        assertTrue(s.riderArmorPoints() > 0);
+        assertTrue(s.mountArmorPoints() > 0);
+        assertTrue(s.speedMultiplier() < 1.0, () -> "speed multiplier " + s.speedMultiplier());
+    }
+
+    @Test
+    void snapshotAndApplyStayWithinBudget() {
+        assumeTrue(allocations.isActive(), "no per-thread allocation counters on this JVM");
+        server.getScheduler().performTicks(WARMUP_TICKS);
+        // Reports and resets the counters, so the warm-up does not count
+        allocations.stop();
+        server.getScheduler().performTicks(MEASURED_TICKS);
+
+        assertWithin(HotPath.STAT_SNAPSHOT);
+        assertWithin(HotPath.STAT_APPLY);
+    }
+
+    private void assertWithin(HotPath path) {
+        long perCall = allocations.bytesPerCall(path);
+        assertTrue(perCall >= 0, () -> path + " never ran");
+        assertTrue(perCall <= path.budgetBytes,
+                () -> path + " allocates " + perCall + " B per call, budget is " + path.budgetBytes);
+    }
+}
@@ -0,0 +1,28 @@
+package fr.oreo.hICPCavalry.service;
+
+import fr.oreo.hICPCavalry.config.TestProfiles;
+import fr.oreo.hICPCavalry.config.WorldProfile;
+import fr.oreo.hICPCavalry.perf.AllocationBudget;
+import fr.oreo.hICPCavalry.perf.HotPath;
+import org.junit.jupiter.api.Test;
+
+class RefreshBatchBudgetTest {
+
+    private static final int RIDERS = 64;
+
+    @Test
+    void computeStaysWithinBudget() {
+        WorldProfile profile = TestProfiles.defaults();
+        RefreshBatch batch = new RefreshBatch();
+        for (int n = 0; n < RIDERS; n++) {
+            int i = batch.add(null, null, null, profile);
+            batch.baseSpeed[i] = 0.1125 + n * 0.001;
+            batch.baseJump[i] = 0.7;
+            batch.playerPts[i] = n % 21;
+            batch.mountPts[i] = n % 12;
+            batch.envPct[i] = n % 3 == 0 ? 5.0 : 0.0;
+        }
+
+        AllocationBudget.assertWithin(HotPath.STAT_COMPUTE, RIDERS, () -> batch.compute(0, RIDERS, 0.05, 0.5));
+    }
+}